@@ -0,0 +1,118 @@
+package finalproject;
+
+
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * This class holds helper methods shared by the benchmarks. The benchmarks are
+ * run with "ant bench", and do not need a display.
+ */
+public class Benchmarks {
+
+    /**
+     * The size, in pixels, of the blank Tile images used by the benchmarks.
+     */
+    public static final int TILE_SIZE = 32;
+    /**
+     * The bean used to measure allocations. Looking it up allocates memory, so
+     * it is only done once.
+     */
+    private static final Object THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * This method gives Tile blank images so that Levels can be created
+     * without loading the game's graphics.
+     *
+     * @throws Exception If the images could not be loaded.
+     */
+    public static void loadBlankImages() throws Exception {
+        Tile.loadImages(new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB),
+                new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB));
+    }
+
+    /**
+     * This method gives the Actors, the PowerUps and the HUDPanel blank sprite
+     * sheets, so that they can be created and drawn without loading the
+     * game's graphics.
+     */
+    public static void loadBlankSprites() {
+        Player.playerImage = blankSpriteSheet(Player.NUM_FRAMES);
+        Projectile.projectileImage = blankSpriteSheet(Projectile.NUM_FRAMES);
+        SimpleEnemy.simpleEnemyImage = blankSpriteSheet(SimpleEnemy.NUM_FRAMES);
+        RandomEnemy.randomEnemyImage = blankSpriteSheet(RandomEnemy.NUM_FRAMES);
+        SearchEnemy.searchEnemyImage = blankSpriteSheet(SearchEnemy.NUM_FRAMES);
+
+        BufferedImage powerUp = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        HealthPowerUp.healthPowerUpImage = powerUp;
+        SpeedPowerUp.speedPowerUpImage = powerUp;
+        //The rating sprite sheet holds 3 stars side by side
+        HUDPanel.ratingImage = new BufferedImage(3 * TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * This method makes a blank sprite sheet. A new one is made for every
+     * Actor, since each sprite sheet only has one SpriteAtlas.
+     *
+     * @param numFrames The number of frames in each direction.
+     * @return The blank sprite sheet.
+     */
+    private static BufferedImage blankSpriteSheet(int numFrames) {
+        return new BufferedImage(numFrames * TILE_SIZE, SpriteAtlas.NUM_DIRECTIONS * TILE_SIZE,
+                BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * This method chooses a random Tile in the Level that isn't a wall.
+     *
+     * @param level The Level.
+     * @param random The Random used to choose the Tile.
+     * @return The Tile.
+     */
+    public static Tile randomTile(Level level, Random random) {
+        while (true) {
+            Tile t = level.getTile(random.nextInt(level.getWidth()), random.nextInt(level.getHeight()));
+            if (t != null && !t.getIsWall()) {
+                return t;
+            }
+        }
+    }
+
+    /**
+     * This method returns the number of bytes that the current thread has
+     * allocated, if the JVM is able to measure it.
+     *
+     * @return The number of bytes allocated, or 0 if it can't be measured.
+     */
+    public static long getAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * This method returns the number of bytes used on the heap after a
+     * garbage collection.
+     *
+     * @return The number of bytes used.
+     */
+    public static long getUsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * This method converts a number of nanoseconds to milliseconds.
+     *
+     * @param nanos The number of nanoseconds.
+     * @return The number of milliseconds.
+     */
+    public static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+}
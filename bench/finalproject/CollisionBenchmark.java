@@ -0,0 +1,178 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This benchmark measures how collision detection scales with the number of
+ * Enemies and Projectiles. First it times only the collision checks, comparing
+ * checking every Enemy against every Projectile, which is what the update
+ * thread used to do, with looking up the Projectiles on each Enemy's Tile in
+ * the Level's projectile grid. Then it times whole ticks of a Simulation with
+ * the same numbers of Enemies and Projectiles, topping them up before each
+ * tick as they are destroyed.
+ */
+public class CollisionBenchmark {
+
+    /**
+     * The numbers of Enemies (and of Projectiles) that are measured.
+     */
+    public static final int[] COUNTS = {10, 50, 100, 200, 400, 800};
+    /**
+     * The width and height of the Level, in Tiles. It is larger than the
+     * game's Levels so that there is room for all of the Actors.
+     */
+    public static final int SIZE = 100;
+    /**
+     * The number of times the collision checks are done for each count.
+     */
+    public static final int CHECKS = 200;
+    /**
+     * The number of ticks simulated for each count.
+     */
+    public static final int TICKS = 200;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+        Benchmarks.loadBlankSprites();
+        VirtualClock clock = new VirtualClock();
+        GameClock.setClock(clock);
+        Random random = new Random(1);
+
+        Level level = new Level(null, SIZE, SIZE, 2.0, 1);
+
+        System.out.println("actors  nested us/check  grid us/check  hits  us/tick");
+        //The first round warms up the JIT compiler
+        for (int round = 0; round < 2; round++) {
+            for (int count : COUNTS) {
+                ArrayList<Enemy> enemies = new ArrayList<Enemy>();
+                ArrayList<Projectile> projectiles = new ArrayList<Projectile>();
+                Player player = new Player(null, null, projectiles);
+                player.reset(level, Benchmarks.randomTile(level, random));
+                addActors(level, player, enemies, projectiles, count, random);
+
+                //Time only the collision checks
+                int nestedHits = 0, gridHits = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < CHECKS; i++) {
+                    nestedHits = checkNested(enemies, projectiles);
+                }
+                long nestedTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < CHECKS; i++) {
+                    gridHits = checkGrid(level, enemies);
+                }
+                long gridTime = System.nanoTime() - start;
+
+                if (nestedHits != gridHits) {
+                    throw new IllegalStateException("The grid found " + gridHits
+                            + " collisions instead of " + nestedHits);
+                }
+
+                //Time whole ticks
+                Simulation simulation = new Simulation(null, level, player, enemies, projectiles);
+                long tickTime = 0;
+                for (int i = 0; i < TICKS; i++) {
+                    addActors(level, player, enemies, projectiles, count, random);
+                    player.addHealth(Actor.MAX_HEALTH);
+
+                    start = System.nanoTime();
+                    simulation.tick();
+                    tickTime += System.nanoTime() - start;
+                    clock.advanceTick();
+                }
+
+                //Take the Projectiles out of the Level for the next count
+                for (Projectile projectile : projectiles) {
+                    projectile.removeFromLevel();
+                }
+
+                if (round > 0) {
+                    System.out.printf("%6d  %15.2f  %13.2f  %4d  %7.1f%n", count,
+                            nestedTime / 1000.0 / CHECKS, gridTime / 1000.0 / CHECKS,
+                            gridHits, tickTime / 1000.0 / TICKS);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method counts the collisions between the Enemies and the
+     * Projectiles by checking every pair, which is what the update thread
+     * used to do.
+     *
+     * @param enemies The Enemies.
+     * @param projectiles The Projectiles.
+     * @return The number of collisions.
+     */
+    private static int checkNested(ArrayList<Enemy> enemies, ArrayList<Projectile> projectiles) {
+        int hits = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            Tile enemyPosition = enemies.get(i).getPosition();
+            for (int a = 0; a < projectiles.size(); a++) {
+                Projectile projectile = projectiles.get(a);
+                if (projectile.getPosition().equals(enemyPosition)
+                        || (projectile.getTarget() != null && projectile.getTarget().equals(enemyPosition))) {
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * This method counts the collisions between the Enemies and the
+     * Projectiles by looking up each Enemy's Tile in the projectile grid.
+     *
+     * @param level The Level.
+     * @param enemies The Enemies.
+     * @return The number of collisions.
+     */
+    private static int checkGrid(Level level, ArrayList<Enemy> enemies) {
+        int hits = 0;
+        OccupancyGrid<Projectile> grid = level.getProjectileGrid();
+        for (int i = 0; i < enemies.size(); i++) {
+            ArrayList<Projectile> onTile = grid.get(enemies.get(i).getPosition());
+            if (onTile != null) {
+                hits += onTile.size();
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * This method adds Enemies and Projectiles at random places in the Level
+     * until there are count of each.
+     *
+     * @param level The Level.
+     * @param player The Player that the Enemies chase.
+     * @param enemies The Enemies.
+     * @param projectiles The Projectiles.
+     * @param count The number of Enemies and of Projectiles there should be.
+     * @param random The Random used to place them.
+     */
+    private static void addActors(Level level, Player player, ArrayList<Enemy> enemies,
+            ArrayList<Projectile> projectiles, int count, Random random) {
+        while (enemies.size() < count) {
+            enemies.add(new SimpleEnemy(Benchmarks.randomTile(level, random), level, player));
+        }
+
+        while (projectiles.size() < count) {
+            Tile position = Benchmarks.randomTile(level, random);
+            Tile[] targets = {level.getLeft(position), level.getRight(position),
+                level.getUp(position), level.getDown(position)};
+            Tile target = targets[random.nextInt(targets.length)];
+            if (target != null && !target.getIsWall()) {
+                projectiles.add(new Projectile(position, target, level));
+            }
+        }
+    }
+}
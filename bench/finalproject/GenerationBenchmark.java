@@ -0,0 +1,81 @@
+package finalproject;
+
+
+/**
+ * This benchmark measures how long it takes to generate a Level as the size of
+ * the map grows, both when sealed off areas are repaired and when the whole map
+ * is regenerated (Level.REPAIR_MAPS). Along with the time, it reports how many
+ * maps were generated and how many repairs were made for each Level.
+ *
+ * Regenerating large maps at high difficulties can take minutes, so once a
+ * single Level takes longer than RETRY_TIME_LIMIT, that size and the larger
+ * ones are skipped from then on.
+ */
+public class GenerationBenchmark {
+
+    /**
+     * The widths and heights of the square maps that are generated.
+     */
+    public static final int[] SIZES = {20, 50, 100, 200, 400};
+    /**
+     * The number of Levels generated for each size and difficulty.
+     */
+    public static final int LEVELS = 10;
+    /**
+     * The longest time, in milliseconds, that one Level may take to generate
+     * when regenerating before the larger sizes are skipped.
+     */
+    public static final double RETRY_TIME_LIMIT = 1000;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+
+        //Warm up, so that the JIT compiler has done its work before timing
+        for (int i = 0; i < LEVELS * 10; i++) {
+            Level.REPAIR_MAPS = i % 2 == 0;
+            new Level(null, Level.MAX_WIDTH, Level.HEIGHT, 2.0, i);
+        }
+
+        System.out.println("mode        size  difficulty  ms/level  attempts  repairs");
+        for (boolean repair : new boolean[]{true, false}) {
+            Level.REPAIR_MAPS = repair;
+            //The number of sizes that are still fast enough to measure
+            int numSizes = SIZES.length;
+
+            for (double difficulty = 1.0; difficulty <= Level.MAX_DIFFICULTY; difficulty += 0.5) {
+                for (int s = 0; s < numSizes; s++) {
+                    int size = SIZES[s];
+                    long time = 0;
+                    int attempts = 0, repairs = 0;
+                    int levels = 0;
+                    boolean tooSlow = false;
+                    while (levels < LEVELS && !tooSlow) {
+                        Level level = new Level(null, size, size, difficulty, levels);
+                        time += level.getGenerationTime();
+                        attempts += level.getGenerationAttempts();
+                        repairs += level.getGenerationRepairs();
+                        levels++;
+                        tooSlow = !repair && Benchmarks.toMillis(level.getGenerationTime()) > RETRY_TIME_LIMIT;
+                    }
+
+                    System.out.printf("%-7s %4d x %-4d  %10.1f  %8.2f  %8.1f  %7.1f%n",
+                            repair ? "repair" : "retry", size, size, difficulty,
+                            Benchmarks.toMillis(time) / levels, (double) attempts / levels,
+                            (double) repairs / levels);
+
+                    if (tooSlow) {
+                        //Higher difficulties will be even slower at this size
+                        numSizes = s;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+
+/**
+ * This benchmark measures how long it takes to switch to a new Level at each
+ * difficulty, the way MainApplet.createNewLevel() does: getting the Level,
+ * with its map image drawn, and then placing the Player, the Enemies and the
+ * PowerUps. It compares making the Level on the spot with taking one that a
+ * LevelGenerator prepared in the background while the last Level was being
+ * "played" (the main thread sleeps for PLAY_TIME).
+ */
+public class LevelSwitchBenchmark {
+
+    /**
+     * The number of switches measured at each difficulty.
+     */
+    public static final int SWITCHES = 10;
+    /**
+     * The time, in milliseconds, that each Level is "played" for before the
+     * switch.
+     */
+    public static final int PLAY_TIME = 200;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+        Benchmarks.loadBlankSprites();
+        LevelGenerator generator = new LevelGenerator(null, 1);
+        ArrayList<Enemy> enemies = new ArrayList<Enemy>();
+        Player player = new Player(null, null, new ArrayList<Projectile>());
+
+        //Warm up, so that the JIT compiler has done its work before timing
+        for (int i = 0; i < SWITCHES * 5; i++) {
+            generator.prepare(2.0);
+            switchLevel(generator, 2.0, player, enemies);
+            switchLevel(generator, 3.0, player, enemies);
+        }
+
+        System.out.println("difficulty  width  on the spot ms  prepared ms");
+        for (double difficulty = 1.0; difficulty <= Level.MAX_DIFFICULTY; difficulty += MainApplet.DIFFICULTY_INCREMENT) {
+            long spotTime = 0, preparedTime = 0;
+            for (int i = 0; i < SWITCHES; i++) {
+                //Nothing has been prepared, so the Level is made on the spot
+                spotTime += switchLevel(generator, difficulty, player, enemies);
+
+                generator.prepare(difficulty);
+                Thread.sleep(PLAY_TIME);
+                preparedTime += switchLevel(generator, difficulty, player, enemies);
+            }
+
+            System.out.printf("%10.1f  %5d  %14.2f  %11.2f%n", difficulty,
+                    LevelGenerator.getLevelWidth(difficulty), Benchmarks.toMillis(spotTime) / SWITCHES,
+                    Benchmarks.toMillis(preparedTime) / SWITCHES);
+        }
+    }
+
+    /**
+     * This method switches to a new Level in the same way as MainApplet.
+     *
+     * @param generator The LevelGenerator that the Level is taken from.
+     * @param difficulty The difficulty of the Level.
+     * @param player The Player.
+     * @param enemies The ArrayList of Enemies, which is filled with the new
+     * Level's Enemies.
+     * @return The time the switch took, in nanoseconds.
+     */
+    private static long switchLevel(LevelGenerator generator, double difficulty, Player player,
+            ArrayList<Enemy> enemies) {
+        long start = System.nanoTime();
+        enemies.clear();
+        Level level = generator.take(difficulty);
+        player.reset(level, level.getRandomTile(level.getTile(0, 0), 0));
+        level.addEnemies(enemies, player);
+        level.addPowerUps(player.getPosition());
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,135 @@
+package finalproject;
+
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * This benchmark measures how long Level.drawLight() takes as more and more of
+ * the Level is lit up. A Player light wanders around a Level of the largest
+ * size, while a few Enemy and Projectile lights follow it. For comparison, the
+ * same lights are also drawn the way the Level used to draw them, by adding
+ * every Player light to one Area that never gets simpler.
+ */
+public class LightingBenchmark {
+
+    /**
+     * The number of frames in each row of the results.
+     */
+    public static final int FRAMES_PER_ROW = 300;
+    /**
+     * The number of rows of results.
+     */
+    public static final int ROWS = 10;
+    /**
+     * The number of temporary lights (Enemies and Projectiles) besides the
+     * Player's.
+     */
+    public static final int TEMP_LIGHTS = 6;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+
+        Level level = new Level(null, Level.MAX_WIDTH, Level.HEIGHT, 2.0, 1);
+        BufferedImage screen = new BufferedImage(level.getWidthPixels(), level.getHeightPixels(),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = screen.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        //The same as the Actor's default light radius
+        int radius = (int) (Math.sqrt(Tile.WIDTH * Tile.WIDTH + Tile.HEIGHT * Tile.HEIGHT) * 2);
+        Area permLitArea = new Area();
+        Random random = new Random(1);
+        int x = level.getWidthPixels() / 2, y = level.getHeightPixels() / 2;
+
+        System.out.println("frames  lit %  cells ms/frame  area ms/frame");
+        for (int row = 0; row < ROWS; row++) {
+            long cellsTime = 0, areaTime = 0;
+
+            for (int frame = 0; frame < FRAMES_PER_ROW; frame++) {
+                //Wander around the Level, a few pixels at a time
+                x = Math.max(0, Math.min(level.getWidthPixels(), x + random.nextInt(49) - 24));
+                y = Math.max(0, Math.min(level.getHeightPixels(), y + random.nextInt(49) - 24));
+
+                int[] lights = new int[(TEMP_LIGHTS + 1) * 3];
+                lights[0] = x;
+                lights[1] = y;
+                lights[2] = radius;
+                for (int i = 1; i <= TEMP_LIGHTS; i++) {
+                    lights[i * 3] = x + (i - TEMP_LIGHTS / 2) * Tile.WIDTH * 2;
+                    lights[i * 3 + 1] = y + (i % 2 == 0 ? Tile.HEIGHT : -Tile.HEIGHT) * 2;
+                    lights[i * 3 + 2] = i % 2 == 0 ? radius / 2 : radius / 4;
+                }
+
+                //Stop before the Level is won, since there is no MainApplet
+                if (level.getLitFraction() < 0.95) {
+                    level.setCurrentLight(x, y, radius);
+                    level.new Task().run();
+                }
+                level.drawLight(g, lights);
+                cellsTime += level.getLightDrawTime();
+
+                long start = System.nanoTime();
+                permLitArea.add(circle(x, y, radius));
+                drawAreaLight(g, level, permLitArea, lights);
+                areaTime += System.nanoTime() - start;
+            }
+
+            System.out.printf("%6d  %5.1f  %14.3f  %13.3f%n", (row + 1) * FRAMES_PER_ROW,
+                    level.getLitFraction() * 100, Benchmarks.toMillis(cellsTime) / FRAMES_PER_ROW,
+                    Benchmarks.toMillis(areaTime) / FRAMES_PER_ROW);
+        }
+    }
+
+    /**
+     * This method draws the light the way that the Level used to, by filling
+     * the Level except for the lit Area with black, and then filling the lit
+     * Area with the Level.LIGHT_COLOR.
+     *
+     * @param g The Graphics2D object to draw to.
+     * @param level The Level that is being lit.
+     * @param permLitArea The Area that is permanently lit.
+     * @param lights The x, y and radius of each temporary light.
+     */
+    private static void drawAreaLight(Graphics2D g, Level level, Area permLitArea, int[] lights) {
+        Area tempLitArea = new Area();
+        for (int i = 0; i < lights.length; i += 3) {
+            tempLitArea.add(circle(lights[i], lights[i + 1], lights[i + 2]));
+        }
+
+        Area fillArea = new Area(new Rectangle2D.Float(0, 0, level.getWidthPixels(), level.getHeightPixels()));
+        Area totalLitArea = new Area();
+        totalLitArea.add(permLitArea);
+        totalLitArea.add(tempLitArea);
+        fillArea.subtract(totalLitArea);
+
+        g.setColor(Color.BLACK);
+        g.fill(fillArea);
+        g.setColor(Level.LIGHT_COLOR);
+        g.fill(totalLitArea);
+    }
+
+    /**
+     * This method creates an Area in the shape of a circle.
+     *
+     * @param x The x-coordinate of the center of the circle.
+     * @param y The y-coordinate of the center of the circle.
+     * @param radius The radius of the circle.
+     * @return The Area of the circle.
+     */
+    private static Area circle(int x, int y, int radius) {
+        return new Area(new Ellipse2D.Float(x - radius, y - radius, radius * 2, radius * 2));
+    }
+}
@@ -0,0 +1,80 @@
+package finalproject;
+
+
+import java.util.Random;
+
+/**
+ * This benchmark measures how much memory a Level's map takes and how fast the
+ * Level answers the grid queries that the Actors use every tick: getTile(),
+ * getLeft(), getRight(), getUp() and getDown(), each followed by getIsWall().
+ * The memory is the growth of the heap after a garbage collection while
+ * LEVELS Levels of each size are kept alive, so it includes everything in a
+ * Level, not only the map.
+ */
+public class MapGridBenchmark {
+
+    /**
+     * The widths and heights of the square maps that are measured.
+     */
+    public static final int[] SIZES = {50, 100, 200, 400};
+    /**
+     * The number of Levels of each size that are kept alive while the memory
+     * is measured.
+     */
+    public static final int LEVELS = 5;
+    /**
+     * The number of random Tiles whose neighbours are looked up for each size.
+     */
+    public static final int QUERIES = 2000000;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+
+        System.out.println("size       KB/level  ns/query  walls");
+        //The first round warms up the JIT compiler
+        for (int round = 0; round < 2; round++) {
+            for (int size : SIZES) {
+                long before = Benchmarks.getUsedMemory();
+                Level[] levels = new Level[LEVELS];
+                for (int i = 0; i < LEVELS; i++) {
+                    levels[i] = new Level(null, size, size, 2.0, i);
+                }
+                long memory = (Benchmarks.getUsedMemory() - before) / LEVELS;
+
+                //Look up the neighbours of random Tiles, counting the walls so
+                //that the lookups aren't optimized away
+                Level level = levels[0];
+                Random random = new Random(size);
+                int walls = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < QUERIES; i++) {
+                    Tile t = level.getTile(random.nextInt(size), random.nextInt(size));
+                    walls += isWall(level.getLeft(t)) + isWall(level.getRight(t))
+                            + isWall(level.getUp(t)) + isWall(level.getDown(t));
+                }
+                long time = System.nanoTime() - start;
+
+                if (round > 0) {
+                    System.out.printf("%4d x %-4d  %8d  %8.1f  %5d%n", size, size, memory / 1024,
+                            (double) time / QUERIES, walls);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method counts a Tile if it is a wall.
+     *
+     * @param t The Tile, which may be null.
+     * @return 1 if the Tile is a wall, otherwise 0.
+     */
+    private static int isWall(Tile t) {
+        return t != null && t.getIsWall() ? 1 : 0;
+    }
+}
@@ -0,0 +1,133 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This benchmark compares ticking the Enemies one after the other with
+ * ticking them on all of the processors at once (Simulation.PARALLEL_ENEMIES).
+ * Half of the Enemies are SearchEnemies, which find whole paths to the Player,
+ * and half are RandomEnemies. The same Level, the same starting positions and
+ * the same seeds are used for both, and the benchmark checks that every Enemy
+ * ends up in the same place with the same health, since the two must play out
+ * exactly the same.
+ */
+public class ParallelEnemyBenchmark {
+
+    /**
+     * The numbers of Enemies that are measured.
+     */
+    public static final int[] COUNTS = {20, 50, 100, 200, 400};
+    /**
+     * The width and height of the Level, in Tiles.
+     */
+    public static final int SIZE = 60;
+    /**
+     * The number of ticks simulated for each count.
+     */
+    public static final int TICKS = 300;
+    /**
+     * The number of ticks between the Player's moves, so that the Enemies
+     * have to keep finding new paths.
+     */
+    public static final int MOVE_TICKS = 10;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+        Benchmarks.loadBlankSprites();
+        VirtualClock clock = new VirtualClock();
+        GameClock.setClock(clock);
+        Level level = new Level(null, SIZE, SIZE, 2.0, 1);
+
+        System.out.printf("%d processors%n", Runtime.getRuntime().availableProcessors());
+        System.out.println("enemies  serial us/tick  parallel us/tick  speedup");
+        //The first round warms up the JIT compiler
+        for (int round = 0; round < 2; round++) {
+            for (int count : COUNTS) {
+                ArrayList<Enemy> serialEnemies = new ArrayList<Enemy>();
+                ArrayList<Enemy> parallelEnemies = new ArrayList<Enemy>();
+                double serialTime = time(level, count, false, clock, serialEnemies);
+                double parallelTime = time(level, count, true, clock, parallelEnemies);
+                check(serialEnemies, parallelEnemies);
+
+                if (round > 0) {
+                    System.out.printf("%7d  %14.1f  %16.1f  %7.2f%n", count, serialTime,
+                            parallelTime, serialTime / parallelTime);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method times ticking the Level with the given number of Enemies.
+     *
+     * @param level The Level.
+     * @param count The number of Enemies.
+     * @param parallel Whether the Enemies are ticked on all of the processors.
+     * @param clock The clock that is advanced after every tick.
+     * @param enemies The ArrayList that the Enemies are put in, which holds
+     * the Enemies that are still alive at the end.
+     * @return The average time of each tick, in microseconds.
+     */
+    private static double time(Level level, int count, boolean parallel, VirtualClock clock,
+            ArrayList<Enemy> enemies) {
+        Simulation.PARALLEL_ENEMIES = parallel;
+        Random random = new Random(count);
+        ArrayList<Projectile> projectiles = new ArrayList<Projectile>();
+        Player player = new Player(null, null, projectiles);
+        player.reset(level, Benchmarks.randomTile(level, random));
+
+        for (int i = 0; i < count; i++) {
+            Tile position = Benchmarks.randomTile(level, random);
+            Enemy enemy = i % 2 == 0 ? new SearchEnemy(position, level, player)
+                    : new RandomEnemy(position, level, player);
+            enemy.random = new Random(i);
+            enemies.add(enemy);
+        }
+
+        Simulation simulation = new Simulation(null, level, player, enemies, projectiles);
+        long time = 0;
+        for (int i = 0; i < TICKS; i++) {
+            player.addHealth(Actor.MAX_HEALTH);
+            if (i % MOVE_TICKS == 0) {
+                //Teleport the Player, so that the SearchEnemies' paths go stale
+                player.reset(level, Benchmarks.randomTile(level, random));
+            }
+
+            long start = System.nanoTime();
+            simulation.tick();
+            time += System.nanoTime() - start;
+            clock.advanceTick();
+        }
+
+        return time / 1000.0 / TICKS;
+    }
+
+    /**
+     * This method makes sure that the Enemies ended up the same way when
+     * ticked one after the other and when ticked at once.
+     *
+     * @param serial The Enemies that were ticked one after the other.
+     * @param parallel The Enemies that were ticked at once.
+     */
+    private static void check(ArrayList<Enemy> serial, ArrayList<Enemy> parallel) {
+        if (serial.size() != parallel.size()) {
+            throw new IllegalStateException(parallel.size() + " Enemies are left instead of " + serial.size());
+        }
+
+        for (int i = 0; i < serial.size(); i++) {
+            Enemy a = serial.get(i), b = parallel.get(i);
+            if (a.getXPixels() != b.getXPixels() || a.getYPixels() != b.getYPixels()
+                    || a.getHealth() != b.getHealth()) {
+                throw new IllegalStateException("Enemy " + i + " ended up differently when ticked in parallel");
+            }
+        }
+    }
+}
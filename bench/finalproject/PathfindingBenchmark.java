@@ -0,0 +1,186 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This benchmark compares the PathPlanners on Levels of the maximum width. An
+ * Enemy and the Player each wander through the Level one Tile at a time, and
+ * after every move the Enemy plans a new path to the Player, which is what a
+ * SearchEnemy does while it waits to retarget. They wander rather than chase
+ * so that the paths stay long.
+ *
+ * The planners are also compared with reading the path off the Level's flow
+ * field, which is what the SearchEnemy actually does. The Simulation rebuilds
+ * the flow field for every Enemy whenever the Player moves, so only following
+ * the path is timed. Its expanded count is the number of Tiles followed, since
+ * it doesn't search.
+ *
+ * Once every move has been made, the same walk is repeated to measure how
+ * much memory each planner allocates. By then the planners' arrays, the path
+ * and the Tiles along the way all exist, so this should be 0 bytes, and the
+ * benchmark fails if it isn't.
+ */
+public class PathfindingBenchmark {
+
+    /**
+     * The number of Levels to run for each difficulty, and the number of moves
+     * made in each Level.
+     */
+    public static final int LEVELS = 20, MOVES = 500;
+    /**
+     * The names of the planners being compared, in the order they are created
+     * by makePlanners().
+     */
+    private static final String[] PLANNER_NAMES = {"A*", "adaptive", "jump point"};
+    /**
+     * The name of the flow field in the results, which come after the
+     * planners'.
+     */
+    private static final String FLOW_FIELD_NAME = "flow field";
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+
+        //Warm up, so that the JIT compiler has done its work before timing
+        for (int i = 0; i < LEVELS; i++) {
+            run(2.0, i, new long[PLANNER_NAMES.length + 1], new long[PLANNER_NAMES.length + 1],
+                    new long[PLANNER_NAMES.length + 1]);
+        }
+
+        System.out.println("difficulty  planner     total ms  expanded/search  bytes/search");
+        for (double difficulty = 1.0; difficulty <= Level.MAX_DIFFICULTY; difficulty += 1.0) {
+            long[] times = new long[PLANNER_NAMES.length + 1];
+            long[] expanded = new long[PLANNER_NAMES.length + 1];
+            long[] bytes = new long[PLANNER_NAMES.length + 1];
+            for (int i = 0; i < LEVELS; i++) {
+                run(difficulty, i, times, expanded, bytes);
+            }
+            int searches = LEVELS * MOVES;
+            for (int p = 0; p <= PLANNER_NAMES.length; p++) {
+                String name = p < PLANNER_NAMES.length ? PLANNER_NAMES[p] : FLOW_FIELD_NAME;
+                System.out.printf("%10.1f  %-10s  %8.2f  %15.1f  %12.1f%n", difficulty, name,
+                        Benchmarks.toMillis(times[p]), expanded[p] / (double) searches,
+                        bytes[p] / (double) searches);
+            }
+            for (int p = 0; p <= PLANNER_NAMES.length; p++) {
+                if (bytes[p] != 0) {
+                    String name = p < PLANNER_NAMES.length ? PLANNER_NAMES[p] : FLOW_FIELD_NAME;
+                    throw new IllegalStateException(name + " allocated " + bytes[p]
+                            + " bytes once it was warmed up");
+                }
+            }
+        }
+    }
+
+    /**
+     * This method creates one of each planner being compared.
+     *
+     * @param level The Level to find paths in.
+     * @return The planners, in the same order as PLANNER_NAMES.
+     */
+    private static PathPlanner[] makePlanners(Level level) {
+        return new PathPlanner[]{new PathFinder(level), new AdaptivePathFinder(level),
+            new JumpPointPathFinder(level)};
+    }
+
+    /**
+     * This method runs one Level of the benchmark.
+     *
+     * @param difficulty The difficulty of the Level.
+     * @param seed The seed of the Level, and of the Random that the Enemy and
+     * the Player wander with.
+     * @param times The time taken by each planner, and then by the flow field,
+     * is added to this array.
+     * @param expanded The number of Tiles expanded by each planner, and then
+     * followed on the flow field, is added to this array.
+     * @param bytes The number of bytes allocated by each planner, and then by
+     * the flow field, while repeating the walk is added to this array.
+     */
+    private static void run(double difficulty, long seed, long[] times, long[] expanded, long[] bytes) {
+        Level level = new Level(null, Level.MAX_WIDTH, Level.HEIGHT, difficulty, seed);
+        Tile playerPosition = level.getRandomTile(level.getTile(0, 0), 0);
+        Tile enemyPosition = level.getRandomTile(playerPosition, Level.MIN_STARTING_DISTANCE_FROM_PLAYER);
+
+        PathPlanner[] planners = makePlanners(level);
+        ArrayList<Tile> path = new ArrayList<Tile>();
+        Random random = new Random(seed);
+        Tile[] enemyPositions = new Tile[MOVES], playerPositions = new Tile[MOVES];
+
+        for (int move = 0; move < MOVES; move++) {
+            enemyPositions[move] = enemyPosition;
+            playerPositions[move] = playerPosition;
+            int expectedLength = -1;
+            for (int p = 0; p < planners.length; p++) {
+                long start = System.nanoTime();
+                ArrayList<Tile> result = planners[p].getPath(path, enemyPosition, playerPosition);
+                times[p] += System.nanoTime() - start;
+                expanded[p] += planners[p].getExpandedCount();
+
+                //Every planner must find a path of the same length
+                int length = result == null ? -1 : result.size();
+                if (p > 0 && length != expectedLength) {
+                    throw new IllegalStateException(PLANNER_NAMES[p] + " found a path of length "
+                            + length + " instead of " + expectedLength);
+                }
+                expectedLength = length;
+            }
+
+            //Follow the flow field, the same way a SearchEnemy does
+            int flow = planners.length;
+            level.updateFlowField(playerPosition);
+            long start = System.nanoTime();
+            level.getFlowPath(path, enemyPosition);
+            times[flow] += System.nanoTime() - start;
+            expanded[flow] += path.size();
+
+            //An empty flow path means the Player can't be reached
+            int length = path.isEmpty() && expectedLength == -1 ? -1 : path.size();
+            if (length != expectedLength) {
+                throw new IllegalStateException(FLOW_FIELD_NAME + " found a path of length "
+                        + length + " instead of " + expectedLength);
+            }
+
+            //The Enemy and the Player both wander
+            enemyPosition = randomStep(level, enemyPosition, random);
+            playerPosition = randomStep(level, playerPosition, random);
+        }
+
+        //Repeat the same walk, now that everything has been created
+        for (int p = 0; p < planners.length; p++) {
+            long before = Benchmarks.getAllocatedBytes();
+            for (int move = 0; move < MOVES; move++) {
+                planners[p].getPath(path, enemyPositions[move], playerPositions[move]);
+            }
+            bytes[p] += Benchmarks.getAllocatedBytes() - before;
+        }
+        long before = Benchmarks.getAllocatedBytes();
+        for (int move = 0; move < MOVES; move++) {
+            level.updateFlowField(playerPositions[move]);
+            level.getFlowPath(path, enemyPositions[move]);
+        }
+        bytes[planners.length] += Benchmarks.getAllocatedBytes() - before;
+    }
+
+    /**
+     * This method moves from a Tile to a random adjacent Tile that isn't a
+     * wall, if there is one.
+     *
+     * @param level The Level.
+     * @param position The Tile to move from.
+     * @param random The Random used to choose the Tile.
+     * @return The Tile moved to.
+     */
+    private static Tile randomStep(Level level, Tile position, Random random) {
+        Tile[] adjacent = level.getAdjacent(position);
+        Tile next = adjacent[random.nextInt(adjacent.length)];
+        return next.getIsWall() ? position : next;
+    }
+}
@@ -0,0 +1,103 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This benchmark measures how long it takes, and how much memory is
+ * allocated, to fire a Projectile and later remove it from the game, when a
+ * large number of Projectiles are in the air. It compares making a new
+ * Projectile for every shot and removing destroyed ones with
+ * ArrayList.remove(), which is what the game used to do, with taking the
+ * Projectiles from a ProjectilePool and removing them by swapping the last one
+ * into their place.
+ */
+public class ProjectileBenchmark {
+
+    /**
+     * The number of Projectiles in the air.
+     */
+    public static final int ACTIVE = 500;
+    /**
+     * The number of shots fired for each measurement.
+     */
+    public static final int SHOTS = 500000;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+        Benchmarks.loadBlankSprites();
+        Level level = new Level(null, Level.MAX_WIDTH, Level.HEIGHT, 2.0, 1);
+        Random random = new Random(1);
+
+        //Find the Tiles to fire from, each with a Tile to the right of it to
+        //fire towards, so that the Projectiles are spread over the Level
+        ArrayList<Tile> positions = new ArrayList<Tile>(), targets = new ArrayList<Tile>();
+        for (int x = 0; x < level.getWidth(); x++) {
+            for (int y = 0; y < level.getHeight(); y++) {
+                Tile position = level.getTile(x, y);
+                Tile target = level.getRight(position);
+                if (position != null && !position.getIsWall() && target != null && !target.getIsWall()) {
+                    positions.add(position);
+                    targets.add(target);
+                }
+            }
+        }
+
+        ProjectilePool pool = new ProjectilePool(ProjectilePool.CAPACITY);
+
+        System.out.println("method     ns/shot  bytes/shot");
+        //The first rounds warm up the JIT compiler
+        for (int round = 0; round < 6; round++) {
+            for (boolean usePool : new boolean[]{false, true}) {
+                ArrayList<Projectile> projectiles = new ArrayList<Projectile>();
+                for (int i = 0; i < ACTIVE; i++) {
+                    projectiles.add(new Projectile(positions.get(i % positions.size()),
+                            targets.get(i % positions.size()), level));
+                }
+
+                long bytes = Benchmarks.getAllocatedBytes();
+                long start = System.nanoTime();
+
+                for (int i = 0; i < SHOTS; i++) {
+                    Tile position = positions.get(i % positions.size());
+                    Tile target = targets.get(i % positions.size());
+
+                    //Remove a random Projectile, as if it had hit something
+                    int index = random.nextInt(projectiles.size());
+                    if (usePool) {
+                        Projectile projectile = projectiles.get(index);
+                        int last = projectiles.size() - 1;
+                        projectiles.set(index, projectiles.get(last));
+                        projectiles.remove(last);
+                        pool.recycle(projectile);
+
+                        projectiles.add(pool.obtain(position, target, level));
+                    } else {
+                        projectiles.remove(index).removeFromLevel();
+
+                        projectiles.add(new Projectile(position, target, level));
+                    }
+                }
+
+                long time = System.nanoTime() - start;
+                bytes = Benchmarks.getAllocatedBytes() - bytes;
+
+                for (Projectile projectile : projectiles) {
+                    projectile.removeFromLevel();
+                }
+
+                if (round >= 4) {
+                    System.out.printf("%-8s  %8.1f  %10.1f%n", usePool ? "pool" : "new",
+                            (double) time / SHOTS, (double) bytes / SHOTS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package finalproject;
+
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * This benchmark measures how long it takes to draw a frame of a Level, and
+ * how much memory the Level uses, as the Level gets bigger than the screen. A
+ * screen the size of the ContentPanel follows a light that travels between
+ * random points of the Level, drawing the map and the darkness each frame the
+ * way the ContentPanel does.
+ *
+ * The memory is shown both for the chunk images alone, which stay the same
+ * size, and for the whole Level (the growth of the heap after a garbage
+ * collection while the Level is kept alive), which still grows with the map
+ * and the lit cells. The memory the images would use if the whole map and
+ * darkness were kept in images the size of the Level is shown for comparison.
+ */
+public class ScrollingBenchmark {
+
+    /**
+     * The widths and heights of the square maps that are drawn, in Tiles.
+     */
+    public static final int[] SIZES = {30, 100, 200, 400};
+    /**
+     * The number of frames drawn for each size.
+     */
+    public static final int FRAMES = 1000;
+    /**
+     * The number of pixels the light moves each frame.
+     */
+    public static final int SPEED = 12;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+
+        int viewWidth = MainApplet.APPLET_WIDTH, viewHeight = MainApplet.APPLET_HEIGHT - MainApplet.HUD_HEIGHT;
+        BufferedImage screen = new BufferedImage(viewWidth, viewHeight, BufferedImage.TYPE_INT_RGB);
+        //The same as the Actor's default light radius
+        int radius = (int) (Math.sqrt(Tile.WIDTH * Tile.WIDTH + Tile.HEIGHT * Tile.HEIGHT) * 2);
+
+        System.out.println("size        ms/frame  chunks drawn  image MB  level MB  full image MB");
+        //The first round warms up the JIT compiler
+        for (int round = 0; round < 2; round++) {
+            for (int size : SIZES) {
+                long before = Benchmarks.getUsedMemory();
+                Level level = new Level(null, size, size, 2.0, size);
+                int levelWidth = level.getWidthPixels(), levelHeight = level.getHeightPixels();
+                Random random = new Random(size);
+                int x = levelWidth / 2, y = levelHeight / 2;
+                int targetX = x, targetY = y;
+
+                long time = 0;
+                for (int frame = 0; frame < FRAMES; frame++) {
+                    //Travel towards the target, and pick a new one once it is reached
+                    if (Math.abs(targetX - x) <= SPEED && Math.abs(targetY - y) <= SPEED) {
+                        targetX = random.nextInt(levelWidth);
+                        targetY = random.nextInt(levelHeight);
+                    }
+                    x += Math.max(-SPEED, Math.min(SPEED, targetX - x));
+                    y += Math.max(-SPEED, Math.min(SPEED, targetY - y));
+
+                    //Stop before the Level is won, since there is no MainApplet
+                    if (level.getLitFraction() < 0.95) {
+                        level.setCurrentLight(x, y, radius);
+                        level.new Task().run();
+                    }
+                    int[] lights = {x, y, radius, x + Tile.WIDTH * 2, y, radius / 2, x, y - Tile.HEIGHT * 2, radius / 4};
+
+                    long start = System.nanoTime();
+                    int cameraX = Math.max(0, Math.min(levelWidth - viewWidth, x - viewWidth / 2));
+                    int cameraY = Math.max(0, Math.min(levelHeight - viewHeight, y - viewHeight / 2));
+                    Graphics2D g = screen.createGraphics();
+                    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    g.clipRect(0, 0, Math.min(viewWidth, levelWidth), Math.min(viewHeight, levelHeight));
+                    g.translate(-cameraX, -cameraY);
+                    level.draw(g);
+                    level.drawLight(g, lights);
+                    g.dispose();
+                    time += System.nanoTime() - start;
+                }
+
+                long levelBytes = Benchmarks.getUsedMemory() - before;
+
+                if (round > 0) {
+                    //The map image and the two darkness images
+                    long fullBytes = (long) levelWidth * levelHeight * 4 * 3;
+                    System.out.printf("%4d x %-4d  %8.3f  %12d  %8.1f  %8.1f  %13.1f%n", size, size,
+                            Benchmarks.toMillis(time) / FRAMES, level.getChunksDrawn(),
+                            level.getImageBytes() / 1048576.0, levelBytes / 1048576.0, fullBytes / 1048576.0);
+                }
+            }
+        }
+    }
+}
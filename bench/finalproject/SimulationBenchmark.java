@@ -0,0 +1,140 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This benchmark measures how many ticks per second the game can be simulated
+ * at, without a screen. It ticks a Simulation as fast as possible on a
+ * VirtualClock that moves forward by one tick every tick, so the Enemies,
+ * the Player's shooting and the speed bonuses behave as they do in real time.
+ * The Player is steered by a simple bot (it walks in a random direction and
+ * keeps shooting), and a new Level at the same difficulty is started whenever
+ * one ends. Each tick also brings the lights up to date and makes a
+ * RenderSnapshot, and the Level's lighting task is run every
+ * Level.LEVEL_THREAD_DELAY_FACTOR ticks, just like in the game. Making the
+ * new Levels is not included in the time.
+ */
+public class SimulationBenchmark {
+
+    /**
+     * The number of ticks simulated at each difficulty. At 30 ticks per
+     * second, this is over 16 minutes of game time.
+     */
+    public static final int TICKS = 30000;
+    /**
+     * The number of ticks between the bot choosing a new direction to walk in.
+     */
+    public static final int STEER_TICKS = 15;
+    /**
+     * The keys that the bot walks with.
+     */
+    public static final char[] DIRECTION_KEYS = {'w', 'a', 's', 'd'};
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+        Benchmarks.loadBlankSprites();
+        Random random = new Random(1);
+        VirtualClock clock = new VirtualClock();
+        GameClock.setClock(clock);
+
+        //Warm up, so that the JIT compiler has done its work before timing
+        simulate(2.0, TICKS, random, clock, false);
+
+        System.out.println("difficulty   ticks/s  us/tick  x real time  levels  won  lost");
+        for (double difficulty = 1.0; difficulty <= Level.MAX_DIFFICULTY; difficulty += 0.5) {
+            simulate(difficulty, TICKS, random, clock, true);
+        }
+    }
+
+    /**
+     * This method simulates the game at one difficulty.
+     *
+     * @param difficulty The difficulty of the Levels.
+     * @param ticks The number of ticks to simulate.
+     * @param random The Random used to steer the Player.
+     * @param clock The VirtualClock that the game is using, which is advanced
+     * by one tick every tick.
+     * @param print Whether or not to print the results.
+     */
+    private static void simulate(double difficulty, int ticks, Random random, VirtualClock clock,
+            boolean print) {
+        ArrayList<Enemy> enemies = new ArrayList<Enemy>();
+        ArrayList<Projectile> projectiles = new ArrayList<Projectile>();
+        Player player = new Player(null, null, projectiles);
+        Level level = newLevel(difficulty, random.nextLong(), player, enemies, projectiles);
+        Simulation simulation = new Simulation(null, level, player, enemies, projectiles);
+
+        long time = 0;
+        int levels = 1, won = 0, lost = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            if (tick % STEER_TICKS == 0) {
+                player.clearKeys();
+                player.pressKey(' ');
+                player.pressKey(DIRECTION_KEYS[random.nextInt(DIRECTION_KEYS.length)]);
+            }
+
+            long start = System.nanoTime();
+            simulation.tick();
+            simulation.makeSnapshot(start);
+            if (tick % Level.LEVEL_THREAD_DELAY_FACTOR == 0) {
+                level.new Task().run();
+            }
+            time += System.nanoTime() - start;
+            clock.advanceTick();
+
+            boolean lit = level.getLitFraction() >= 1.0;
+            if (simulation.isLevelOver() || lit) {
+                if (lit || simulation.getLevelWon()) {
+                    won++;
+                } else {
+                    lost++;
+                }
+
+                level = newLevel(difficulty, random.nextLong(), player, enemies, projectiles);
+                simulation.changeLevel(level);
+                levels++;
+            }
+        }
+
+        if (print) {
+            //How many times faster than real time the game was simulated
+            double speedup = (double) ticks / MainApplet.TICK_RATE / (time / 1e9);
+            System.out.printf("%10.1f  %8.0f  %7.2f  %11.0f  %6d  %3d  %4d%n", difficulty,
+                    ticks / (time / 1e9), time / 1000.0 / ticks, speedup, levels, won, lost);
+        }
+    }
+
+    /**
+     * This method makes a new Level in the same way as MainApplet, and puts the
+     * Player, the Enemies and the PowerUps in it.
+     *
+     * @param difficulty The difficulty of the Level.
+     * @param seed The seed of the Level.
+     * @param player The Player.
+     * @param enemies The ArrayList of Enemies, which is emptied and filled
+     * with the new Level's Enemies.
+     * @param projectiles The ArrayList of Projectiles, which is emptied.
+     * @return The new Level.
+     */
+    private static Level newLevel(double difficulty, long seed, Player player, ArrayList<Enemy> enemies,
+            ArrayList<Projectile> projectiles) {
+        projectiles.clear();
+        enemies.clear();
+
+        Level level = new Level(null, LevelGenerator.getLevelWidth(difficulty), LevelGenerator.getLevelHeight(),
+                difficulty, seed);
+
+        player.reset(level, level.getRandomTile(level.getTile(0, 0), 0));
+        level.addEnemies(enemies, player);
+        level.addPowerUps(player.getPosition());
+        return level;
+    }
+}
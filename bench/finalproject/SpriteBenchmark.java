@@ -0,0 +1,66 @@
+package finalproject;
+
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * This benchmark measures how long it takes to draw one frame of an Actor's
+ * animation, and how much memory is allocated doing it. It compares cutting
+ * the frame out of the sprite sheet with getSubimage() every time, which is
+ * what Actor used to do, with taking the frame from a SpriteAtlas.
+ */
+public class SpriteBenchmark {
+
+    /**
+     * The number of frames and directions in the sprite sheet, and the size of
+     * each frame in pixels.
+     */
+    public static final int NUM_FRAMES = 3, FRAME_SIZE = 32;
+    /**
+     * The number of frames drawn for each measurement.
+     */
+    public static final int DRAWS = 200000;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        BufferedImage spriteSheet = new BufferedImage(NUM_FRAMES * FRAME_SIZE,
+                SpriteAtlas.NUM_DIRECTIONS * FRAME_SIZE, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage screen = new BufferedImage(960, 640, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = screen.createGraphics();
+        SpriteAtlas atlas = SpriteAtlas.getAtlas(spriteSheet, NUM_FRAMES);
+
+        System.out.println("method       ns/draw  bytes/draw");
+        //The first round warms up the JIT compiler
+        for (int round = 0; round < 3; round++) {
+            for (boolean useAtlas : new boolean[]{false, true}) {
+                long bytes = Benchmarks.getAllocatedBytes();
+                long start = System.nanoTime();
+
+                for (int i = 0; i < DRAWS; i++) {
+                    int frame = i % NUM_FRAMES;
+                    int direction = (i / NUM_FRAMES) % SpriteAtlas.NUM_DIRECTIONS;
+                    BufferedImage image;
+                    if (useAtlas) {
+                        image = atlas.getFrame(frame, direction);
+                    } else {
+                        image = spriteSheet.getSubimage(frame * FRAME_SIZE, direction * FRAME_SIZE,
+                                FRAME_SIZE, FRAME_SIZE);
+                    }
+                    g.drawImage(image, (i * 7) % 928, (i * 13) % 608, null);
+                }
+
+                long time = System.nanoTime() - start;
+                bytes = Benchmarks.getAllocatedBytes() - bytes;
+                if (round > 0) {
+                    System.out.printf("%-10s  %8.1f  %10.1f%n", useAtlas ? "atlas" : "getSubimage",
+                            (double) time / DRAWS, (double) bytes / DRAWS);
+                }
+            }
+        }
+    }
+}
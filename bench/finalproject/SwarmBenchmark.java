@@ -0,0 +1,98 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This benchmark compares ticking large numbers of Enemies that are each an
+ * object (SimpleEnemies and RandomEnemies) with ticking the same numbers of
+ * Enemies stored in a Level's EnemySwarm. Half of the Enemies are of each
+ * type, and they all chase a Player that stands still and is healed before
+ * every tick so that the Level doesn't end.
+ */
+public class SwarmBenchmark {
+
+    /**
+     * The numbers of Enemies that are measured.
+     */
+    public static final int[] COUNTS = {100, 500, 1000, 2000, 5000};
+    /**
+     * The width and height of the Level, in Tiles. It is much larger than the
+     * game's Levels so that there is room for all of the Enemies.
+     */
+    public static final int SIZE = 200;
+    /**
+     * The number of ticks simulated for each count.
+     */
+    public static final int TICKS = 300;
+
+    /**
+     * This method runs the benchmark and prints the results.
+     *
+     * @param args Unused.
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    public static void main(String[] args) throws Exception {
+        Benchmarks.loadBlankImages();
+        Benchmarks.loadBlankSprites();
+        VirtualClock clock = new VirtualClock();
+        GameClock.setClock(clock);
+
+        System.out.println("enemies  objects us/tick  swarm us/tick  swarm x real time");
+        //The first round warms up the JIT compiler
+        for (int round = 0; round < 2; round++) {
+            for (int count : COUNTS) {
+                double objectTime = time(count, false, clock);
+                double swarmTime = time(count, true, clock);
+
+                if (round > 0) {
+                    System.out.printf("%7d  %15.1f  %13.1f  %17.1f%n", count, objectTime,
+                            swarmTime, 1000000.0 / swarmTime / MainApplet.TICK_RATE);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method times ticking a new Level with the given number of Enemies.
+     *
+     * @param count The number of Enemies.
+     * @param swarm Whether the Enemies are put in the Level's EnemySwarm
+     * rather than made into objects.
+     * @param clock The clock that is advanced after every tick.
+     * @return The average time of each tick, in microseconds.
+     */
+    private static double time(int count, boolean swarm, VirtualClock clock) {
+        Random random = new Random(1);
+        Level level = new Level(null, SIZE, SIZE, 2.0, 1);
+        ArrayList<Enemy> enemies = new ArrayList<Enemy>();
+        ArrayList<Projectile> projectiles = new ArrayList<Projectile>();
+        Player player = new Player(null, null, projectiles);
+        player.reset(level, Benchmarks.randomTile(level, random));
+
+        for (int i = 0; i < count; i++) {
+            Tile position = Benchmarks.randomTile(level, random);
+            boolean simple = i % 2 == 0;
+            if (swarm) {
+                level.getSwarm().add(simple ? EnemySwarm.SIMPLE : EnemySwarm.RANDOM, position);
+            } else {
+                enemies.add(simple ? new SimpleEnemy(position, level, player)
+                        : new RandomEnemy(position, level, player));
+            }
+        }
+
+        Simulation simulation = new Simulation(null, level, player, enemies, projectiles);
+        long time = 0;
+        for (int i = 0; i < TICKS; i++) {
+            player.addHealth(Actor.MAX_HEALTH);
+
+            long start = System.nanoTime();
+            simulation.tick();
+            time += System.nanoTime() - start;
+            clock.advanceTick();
+        }
+
+        return time / 1000.0 / TICKS;
+    }
+}
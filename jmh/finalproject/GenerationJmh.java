@@ -0,0 +1,67 @@
+package finalproject;
+
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This JMH benchmark measures making a new Level, for each map size and
+ * difficulty. Level.generateMap() is private and only ever called by the
+ * constructor, so the whole constructor is timed, which is what starting a
+ * new Level costs the game. Every Level is made from the same seed, so the
+ * same map is generated every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenerationJmh {
+
+    /**
+     * The width and height of the Level, in Tiles.
+     */
+    @Param({"20", "50", "100", "200"})
+    public int size;
+    /**
+     * The difficulty of the Level.
+     */
+    @Param({"1.0", "2.5", "4.0"})
+    public double difficulty;
+    /**
+     * The seed that the Level is made from.
+     */
+    @Param({"1"})
+    public long seed;
+
+    /**
+     * This method gives the Tiles their images.
+     *
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Benchmarks.loadBlankImages();
+    }
+
+    /**
+     * This method makes a new Level.
+     *
+     * @return The Level, so that it isn't optimized away.
+     */
+    @Benchmark
+    public Level generate() {
+        return new Level(null, size, size, difficulty, seed);
+    }
+}
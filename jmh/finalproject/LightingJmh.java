@@ -0,0 +1,132 @@
+package finalproject;
+
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This JMH benchmark measures Level.drawLight() for each map size and
+ * difficulty. Before timing, part of the Level is permanently lit by a
+ * Player light that wanders around it, and then the Player's light and a few
+ * Enemy lights are drawn over the Level every time. The Level is made from the
+ * seed and the wandering uses a Random made from it, so the same part of the
+ * same map is lit every run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LightingJmh {
+
+    /**
+     * The number of steps the Player's light takes while lighting the Level.
+     */
+    public static final int WANDER_STEPS = 500;
+    /**
+     * The number of Enemy lights besides the Player's.
+     */
+    public static final int ENEMY_LIGHTS = 4;
+    /**
+     * The width and height of the Level, in Tiles.
+     */
+    @Param({"20", "50", "100"})
+    public int size;
+    /**
+     * The difficulty of the Level.
+     */
+    @Param({"1.0", "2.5", "4.0"})
+    public double difficulty;
+    /**
+     * The seed of the Level and of the Random that moves the Player's light.
+     */
+    @Param({"1"})
+    public long seed;
+    /**
+     * The Level that is lit.
+     */
+    private Level level;
+    /**
+     * The image that the light is drawn to, and its Graphics2D.
+     */
+    private BufferedImage screen;
+    private Graphics2D g;
+    /**
+     * The lights that are drawn, as the x, y and radius of each.
+     */
+    private int[] lights;
+
+    /**
+     * This method makes the Level and lights part of it.
+     *
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Benchmarks.loadBlankImages();
+        level = new Level(null, size, size, difficulty, seed);
+        screen = new BufferedImage(level.getWidthPixels(), level.getHeightPixels(), BufferedImage.TYPE_INT_RGB);
+        g = screen.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        //Wander around the Level, lighting it up as the Player would
+        Random random = new Random(seed);
+        int radius = Actor.DEFAULT_LIGHT_RADIUS;
+        int x = level.getWidthPixels() / 2, y = level.getHeightPixels() / 2;
+        for (int i = 0; i < WANDER_STEPS; i++) {
+            x = Math.max(0, Math.min(level.getWidthPixels(), x + random.nextInt(49) - 24));
+            y = Math.max(0, Math.min(level.getHeightPixels(), y + random.nextInt(49) - 24));
+            //Stop before the Level is won, since there is no MainApplet
+            if (level.getLitFraction() < 0.95) {
+                level.setCurrentLight(x, y, radius);
+                level.new Task().run();
+            }
+        }
+
+        lights = new int[(ENEMY_LIGHTS + 1) * 3];
+        lights[0] = x;
+        lights[1] = y;
+        lights[2] = radius;
+        for (int i = 1; i <= ENEMY_LIGHTS; i++) {
+            lights[i * 3] = random.nextInt(level.getWidthPixels());
+            lights[i * 3 + 1] = random.nextInt(level.getHeightPixels());
+            lights[i * 3 + 2] = radius / 2;
+        }
+    }
+
+    /**
+     * This method releases the Graphics2D.
+     */
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    /**
+     * This method draws the light over the Level.
+     *
+     * @return The image that was drawn to, so that the drawing isn't
+     * optimized away.
+     */
+    @Benchmark
+    public BufferedImage drawLight() {
+        level.drawLight(g, lights);
+        return screen;
+    }
+}
@@ -0,0 +1,107 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This JMH benchmark measures Level.getPath() between random pairs of Tiles,
+ * for each map size and difficulty, with and without jump point search. The
+ * Level is made from the seed and the pairs are chosen with a Random made from
+ * it, so every run finds the same paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfindingJmh {
+
+    /**
+     * The number of pairs of Tiles that paths are found between. This must be
+     * a power of two.
+     */
+    public static final int PAIRS = 256;
+    /**
+     * The width and height of the Level, in Tiles.
+     */
+    @Param({"20", "50", "100"})
+    public int size;
+    /**
+     * The difficulty of the Level.
+     */
+    @Param({"1.0", "2.5", "4.0"})
+    public double difficulty;
+    /**
+     * Whether Level.JUMP_POINT_SEARCH is enabled.
+     */
+    @Param({"false", "true"})
+    public boolean jumpPointSearch;
+    /**
+     * The seed of the Level and of the Random that chooses the pairs of
+     * Tiles.
+     */
+    @Param({"1"})
+    public long seed;
+    /**
+     * The Level that paths are found in.
+     */
+    private Level level;
+    /**
+     * The start and target of each path.
+     */
+    private Tile[] starts, targets;
+    /**
+     * The ArrayList that every path is stored in.
+     */
+    private ArrayList<Tile> path;
+    /**
+     * The number of paths that have been found, which chooses the next pair.
+     */
+    private int next;
+
+    /**
+     * This method makes the Level and chooses the pairs of Tiles.
+     *
+     * @throws Exception If the Tile images could not be loaded.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Benchmarks.loadBlankImages();
+        Level.JUMP_POINT_SEARCH = jumpPointSearch;
+        level = new Level(null, size, size, difficulty, seed);
+
+        Random random = new Random(seed);
+        starts = new Tile[PAIRS];
+        targets = new Tile[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            starts[i] = Benchmarks.randomTile(level, random);
+            targets[i] = Benchmarks.randomTile(level, random);
+        }
+        path = new ArrayList<Tile>();
+    }
+
+    /**
+     * This method finds the path between the next pair of Tiles.
+     *
+     * @return The path, so that the search isn't optimized away.
+     */
+    @Benchmark
+    public ArrayList<Tile> getPath() {
+        int i = next++ & (PAIRS - 1);
+        return level.getPath(path, starts[i], targets[i]);
+    }
+}
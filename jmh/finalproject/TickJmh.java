@@ -0,0 +1,97 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This JMH benchmark measures ContentPanel.Task.run(), which is everything
+ * the update thread does in one tick: ticking the Simulation and publishing a
+ * RenderSnapshot. The Level is made from the seed, and its Enemies and
+ * PowerUps are added the same way as in the game, so every run plays out the
+ * same way. The Player stands still and is healed before every tick so
+ * that the Level never ends, and the game's time comes from a VirtualClock
+ * that moves on by one tick each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickJmh {
+
+    /**
+     * The width and height of the Level, in Tiles.
+     */
+    @Param({"20", "50", "100"})
+    public int size;
+    /**
+     * The difficulty of the Level.
+     */
+    @Param({"1.0", "2.5", "4.0"})
+    public double difficulty;
+    /**
+     * The seed that the Level is made from.
+     */
+    @Param({"1"})
+    public long seed;
+    /**
+     * The clock that the game's time comes from.
+     */
+    private VirtualClock clock;
+    /**
+     * The Player, who is healed before every tick.
+     */
+    private Player player;
+    /**
+     * The update task of the ContentPanel.
+     */
+    private ContentPanel.Task task;
+
+    /**
+     * This method makes the Level and the ContentPanel that ticks it.
+     *
+     * @throws Exception If the images could not be loaded.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Benchmarks.loadBlankImages();
+        Benchmarks.loadBlankSprites();
+        clock = new VirtualClock();
+        GameClock.setClock(clock);
+
+        Level level = new Level(null, size, size, difficulty, seed);
+        ArrayList<Enemy> enemies = new ArrayList<Enemy>();
+        ArrayList<Projectile> projectiles = new ArrayList<Projectile>();
+        player = new Player(null, null, projectiles);
+        player.reset(level, level.getRandomTile(level.getTile(0, 0), 0));
+        level.addEnemies(enemies, player);
+        level.addPowerUps(player.getPosition());
+
+        ContentPanel content = new ContentPanel(null, new HUDPanel(), level, player, enemies, projectiles);
+        content.setRunState(true);
+        task = content.new Task();
+    }
+
+    /**
+     * This method runs the update task once.
+     */
+    @Benchmark
+    public void tick() {
+        player.addHealth(Actor.MAX_HEALTH);
+        task.run();
+        clock.advanceTick();
+    }
+}
@@ -1,7 +1,5 @@
 package finalproject;
 
-import java.awt.Graphics2D;
-import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
 
 /**
@@ -23,6 +21,19 @@ public abstract class Actor {
      * The amount that the Actor's speed is multiplied by during a speed boost
      */
     public static final int SPEED_BONUS_FACTOR = 2;
+    /**
+     * The number of ticks per second that the Actor speeds were chosen for.
+     * When MainApplet.TICK_RATE is different, the distance moved in each tick
+     * is scaled so that the Actors still move at the same speed.
+     */
+    public static final int STANDARD_TICK_RATE = 30;
+    /**
+     * The default light radius for an Actor, which is twice the length of the
+     * diagonal of a single Tile. It is worked out once by Tile.loadImages(),
+     * when the size of a Tile is known, rather than every time an Actor is
+     * made.
+     */
+    public static int DEFAULT_LIGHT_RADIUS;
     /**
      * The amount that the Actor has moved, in pixels, since starting a smooth
      * transition between Tiles.
@@ -56,6 +67,11 @@ public abstract class Actor {
      * identical to the number specified by numFrames.
      */
     protected BufferedImage spriteSheetImage;
+    /**
+     * The frames of the Actor's sprite sheet, which are shared with every
+     * other Actor that uses the same sprite sheet.
+     */
+    protected SpriteAtlas spriteAtlas;
     /**
      * The number of frames in the Actor's sprite sheet.
      */
@@ -89,8 +105,8 @@ public abstract class Actor {
      */
     protected boolean moveLeft, moveRight, moveUp, moveDown;
     /**
-     * This represents the time, in milliseconds, that the last speed bonus was
-     * initiated.
+     * This represents the time, in milliseconds on the GameClock, that the last
+     * speed bonus was initiated.
      */
     private long speedBonusStartTime;
     /**
@@ -98,7 +114,8 @@ public abstract class Actor {
      */
     private long speedBonusDuration;
     /**
-     * This represents the time, in milliseconds, of the last frame increment.
+     * This represents the time, in milliseconds on the GameClock, of the last
+     * frame increment.
      */
     private long lastFrameTime;
     /**
@@ -106,6 +123,18 @@ public abstract class Actor {
      * Note that this is numbered, not measured in pixels.
      */
     private int xCurFrame, yCurFrame;
+    /**
+     * The position of the Actor, in pixels, before the last tick. The Actor is
+     * drawn between this position and its current one, so that it moves
+     * smoothly even when it is drawn more often than it is ticked.
+     */
+    private int previousX, previousY;
+    /**
+     * Whether or not previousX and previousY hold a position that the Actor
+     * can be drawn from. This is false until the first tick after the Actor is
+     * created or reset, so that it doesn't appear to slide across the map.
+     */
+    private boolean previousValid;
 
     /**
      * Create a new Actor based on these parameters.
@@ -121,6 +150,9 @@ public abstract class Actor {
         this.position = position;
         this.currentLevel = currentLevel;
         this.spriteSheetImage = spriteSheet;
+        if (spriteSheet != null) {
+            this.spriteAtlas = SpriteAtlas.getAtlas(spriteSheet, numFrames);
+        }
         this.numFrames = numFrames;
         this.FPS = FPS;
         this.health = MAX_HEALTH;
@@ -128,14 +160,13 @@ public abstract class Actor {
 
         //Set the light radius of the Actor to be twice the length of the diagonal
         //of a single Tile
-        this.lightRadius = (int) (Math.sqrt(Math.pow(Tile.WIDTH, 2)
-                + Math.pow(Tile.HEIGHT, 2)) * 2);
+        this.lightRadius = DEFAULT_LIGHT_RADIUS;
 
         // Default speed is 1.0, if it should be changed, it can be done in the
         // subclass' constructor
         speed = 1.0;
 
-        lastFrameTime = 0;
+        lastFrameTime = GameClock.NEVER;
         xCurFrame = 0;
         yCurFrame = 0;
 
@@ -150,42 +181,97 @@ public abstract class Actor {
     abstract void update();
 
     /**
-     * This method is responsible for drawing the Actor in its current position
-     * on the Level. It should be called in the paint thread of the game for
-     * every instance of the subclass.
+     * This method advances the Actor by one fixed step of the simulation. It
+     * remembers where the Actor was, so that it can be drawn between there and
+     * its new position, lets the subclass decide what to do with update(), and
+     * then moves the Actor towards its target. It should be
+     * called in the update thread of the game, MainApplet.TICK_RATE times per
+     * second, instead of calling update() directly.
      */
-    public void draw(Graphics2D g) {
-        if (spriteSheetImage != null) {
-            //Update the movement of the Actor
-            doMove();
-
-            //Draw the image of the Actor in its transition from one tile to the next
-            drawImage(g);
+    public void tick() {
+        if (position != null) {
+            previousX = getXPixels();
+            previousY = getYPixels();
+            previousValid = true;
         }
+
+        update();
+
+        //Update the movement of the Actor
+        doMove();
     }
 
     /**
-     * This method draws the actor's image in the center of each tile
+     * This method returns the x-coordinate of the Actor in its transition
+     * between Tiles, as of the last tick.
      *
-     * @param g The Graphics2D object to draw the image to
+     * @return The x-coordinate of the top left corner of the Actor, in pixels.
      */
-    protected void drawImage(Graphics2D g) {
-        if (position != null) {
-            BufferedImage frame = getCurrentFrame(spriteSheetImage);
-            int x = position.getXPixels() + xMove;
-            int y = position.getYPixels() + yMove;
-            g.drawImage(frame, x + Tile.WIDTH / 2 - frame.getWidth()
-                    / 2, y + Tile.HEIGHT / 2 - frame.getHeight() / 2,
-                    null);
-        }
+    public int getXPixels() {
+        return position.getXPixels() + xMove;
+    }
+
+    /**
+     * This method returns the y-coordinate of the Actor in its transition
+     * between Tiles, as of the last tick.
+     *
+     * @return The y-coordinate of the top left corner of the Actor, in pixels.
+     */
+    public int getYPixels() {
+        return position.getYPixels() + yMove;
     }
 
     /**
-     * This method must be overridden by the subclass. This method should return
-     * an Area object representing the Area around the Actor that is not
-     * darkness in the Level.
+     * This method returns the x-coordinate of the Actor before the last tick.
+     * The Actor is drawn between this position and its current one.
+     *
+     * @return The x-coordinate of the top left corner of the Actor before the
+     * last tick, in pixels.
+     */
+    public int getPreviousXPixels() {
+        return previousValid ? previousX : getXPixels();
+    }
+
+    /**
+     * This method returns the y-coordinate of the Actor before the last tick.
+     * The Actor is drawn between this position and its current one.
+     *
+     * @return The y-coordinate of the top left corner of the Actor before the
+     * last tick, in pixels.
+     */
+    public int getPreviousYPixels() {
+        return previousValid ? previousY : getYPixels();
+    }
+
+    /**
+     * This method returns the x-coordinate of the center of the Actor's light,
+     * which is the center of the Actor in its transition between Tiles.
+     *
+     * @return The x-coordinate of the center of the light, in pixels.
      */
-    protected abstract Area getLight();
+    public int getLightX() {
+        return getXPixels() + Tile.WIDTH / 2;
+    }
+
+    /**
+     * This method returns the y-coordinate of the center of the Actor's light,
+     * which is the center of the Actor in its transition between Tiles.
+     *
+     * @return The y-coordinate of the center of the light, in pixels.
+     */
+    public int getLightY() {
+        return getYPixels() + Tile.HEIGHT / 2;
+    }
+
+    /**
+     * This method returns the radius of the circle of light surrounding the
+     * Actor.
+     *
+     * @return The radius of the light, in pixels.
+     */
+    public int getLightRadius() {
+        return lightRadius;
+    }
 
     /**
      * This method handles the fluid movement of the Actor between Tiles in the
@@ -254,7 +340,7 @@ public abstract class Actor {
      */
     public void addSpeedBonus(int duration) {
         this.speedBonusDuration = duration;
-        this.speedBonusStartTime = System.currentTimeMillis();
+        this.speedBonusStartTime = GameClock.getClock().millis();
     }
 
     /**
@@ -288,7 +374,7 @@ public abstract class Actor {
             }
         } else {
             //Otherwise, update the current frame
-            long now = System.currentTimeMillis();
+            long now = GameClock.getClock().millis();
             if (now - lastFrameTime > 1000 / FPS) {
                 //If it's been enough time since the last frame
                 if (xCurFrame == numFrames - 1) {
@@ -318,22 +404,20 @@ public abstract class Actor {
 
     /**
      * Gets the current frame in the Actor's animation, accounting for direction
-     * of movement.
+     * of movement. The frame comes from the Actor's SpriteAtlas, so no new
+     * image is created.
      *
-     * @param image The Actor's sprite sheet
      * @return The current frame of the Actor's sprite sheet.
      */
-    protected BufferedImage getCurrentFrame(BufferedImage image) {
-        int frameWidth = image.getWidth() / numFrames;
-        int frameHeight = image.getHeight() / 4;
-        return image.getSubimage(xCurFrame * frameWidth, yCurFrame
-                * frameHeight, frameWidth, frameHeight);
+    protected BufferedImage getCurrentFrame() {
+        return spriteAtlas.getFrame(xCurFrame, yCurFrame);
     }
 
     /**
      * This method is responsible for moving the Actor from one Tile to the
      * next, in a smooth fashion. This is done by changing the xMove and yMove
-     * values
+     * values. It is called once every tick, so the distance moved is scaled by
+     * the tick rate.
      */
     protected void doMove() {
         if (position == null || target == null || transitionComplete) {
@@ -353,11 +437,13 @@ public abstract class Actor {
             int xDiff = target.getXPixels() - position.getXPixels();
             int yDiff = target.getYPixels() - position.getYPixels();
 
-            // Tile.TILE_WIDTH / 8 is the standard speed of the player
-            int xSpeed = (int) (speed * Tile.WIDTH / 8);
-            int ySpeed = (int) (speed * Tile.HEIGHT / 8);
+            // Tile.TILE_WIDTH / 8 is the standard speed of the player at the
+            // standard tick rate
+            double tickScale = (double) STANDARD_TICK_RATE / MainApplet.TICK_RATE;
+            int xSpeed = (int) (speed * Tile.WIDTH / 8 * tickScale);
+            int ySpeed = (int) (speed * Tile.HEIGHT / 8 * tickScale);
 
-            long now = System.currentTimeMillis();
+            long now = GameClock.getClock().millis();
 
             //If we need to account for a speed bonus
             if (speedBonusDuration > 0) {
@@ -424,6 +510,8 @@ public abstract class Actor {
         //Reset xMove and yMove
         xMove = 0;
         yMove = 0;
+        //Don't draw the Actor sliding from where it was in the last Level
+        previousValid = false;
     }
 
     /**
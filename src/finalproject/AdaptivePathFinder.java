@@ -0,0 +1,127 @@
+package finalproject;
+
+
+import java.util.Arrays;
+
+/**
+ * This class is an incremental version of the A* pathfinding algorithm, meant
+ * for Enemies that search for the Player over and over again. The map never
+ * changes and the Player only moves a Tile or so between searches, so most of
+ * what one search learns about the Level is still true for the next one.
+ *
+ * After each search, every expanded Tile remembers how far it really is from
+ * the target (the length of the path minus the Tile's distance from the start).
+ * Later searches use these remembered values as their heuristic, which is much
+ * better informed than the Manhattan distance and causes far fewer Tiles to be
+ * expanded. When the target moves, the remembered values are lowered by how
+ * far the new target is from the old one, so that they never over-estimate.
+ * This is known as Generalized Adaptive A*, or moving-target A*.
+ *
+ * http://idm-lab.org/bib/abstracts/papers/aamas08b.pdf
+ */
+public class AdaptivePathFinder extends PathFinder {
+
+    /**
+     * The distance to the target that each Tile learned in the last search
+     * that expanded it, or -1 if the Tile has never been expanded.
+     */
+    private int[] learnedHeuristics;
+    /**
+     * The value of totalCorrection at the time each learned heuristic was
+     * recorded.
+     */
+    private int[] learnedCorrections;
+    /**
+     * The sum of how far the target has moved over all searches so far. The
+     * learned heuristic of a Tile is lowered by how much this has increased
+     * since it was learned.
+     */
+    private int totalCorrection;
+    /**
+     * The index of the target of the previous search, or -1 if there has not
+     * been one.
+     */
+    private int lastTargetIndex;
+
+    /**
+     * Create an AdaptivePathFinder for the given Level.
+     *
+     * @param level The Level to find paths in.
+     */
+    public AdaptivePathFinder(Level level) {
+        super(level);
+
+        lastTargetIndex = -1;
+    }
+
+    @Override
+    /**
+     * This method lowers every learned heuristic if the target has moved since
+     * the last search.
+     *
+     * @param targetIndex The index of the target Tile.
+     */
+    protected void searchStarting(int targetIndex) {
+        if (learnedHeuristics == null) {
+            //No Tile has learned anything yet
+            learnedHeuristics = new int[width * height];
+            learnedCorrections = new int[width * height];
+            Arrays.fill(learnedHeuristics, -1);
+        }
+
+        if (lastTargetIndex >= 0 && targetIndex != lastTargetIndex) {
+            //The new target is at least this far from the old one, so every
+            //learned distance to the old target could be too large by this much
+            totalCorrection += getHeuristic(targetIndex, lastTargetIndex % width,
+                    lastTargetIndex / width);
+        }
+        lastTargetIndex = targetIndex;
+    }
+
+    @Override
+    /**
+     * This method returns the larger of the Manhattan distance and the learned
+     * distance to the target for a Tile.
+     *
+     * @param index The index of the Tile.
+     * @param targetX The x-coordinate of the target.
+     * @param targetY The y-coordinate of the target.
+     * @return The heuristic value of the Tile.
+     */
+    protected int getHeuristic(int index, int targetX, int targetY) {
+        int h = super.getHeuristic(index, targetX, targetY);
+
+        if (learnedHeuristics[index] >= 0) {
+            //Correct the learned value for how far the target has moved since
+            int learned = learnedHeuristics[index]
+                    - (totalCorrection - learnedCorrections[index]);
+            if (learned > h) {
+                h = learned;
+            }
+        }
+
+        return h;
+    }
+
+    @Override
+    /**
+     * This method records the real distance to the target for every Tile that
+     * was expanded, if a path was found.
+     *
+     * @param targetIndex The index of the target Tile.
+     * @param targetFound Whether or not a path to the target was found.
+     */
+    protected void searchFinished(int targetIndex, boolean targetFound) {
+        if (!targetFound) {
+            return;
+        }
+
+        //Every expanded Tile is at most this far from the target
+        int pathLength = gValues[targetIndex];
+        for (int i = 0; i < closedSize; i++) {
+            int index = closedTiles[i];
+            learnedHeuristics[index] = pathLength - gValues[index];
+            learnedCorrections[index] = totalCorrection;
+        }
+    }
+}
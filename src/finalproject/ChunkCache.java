@@ -0,0 +1,373 @@
+package finalproject;
+
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * This class splits an image the size of a Level into square chunks of
+ * CHUNK_TILES by CHUNK_TILES Tiles, and only keeps the chunks that have been
+ * drawn recently. A chunk is drawn (by drawChunk()) the first time it is
+ * visible, and once more than MAX_CHUNKS are kept, the ones that have been
+ * visible least recently are thrown away and their images re-used. This way
+ * the memory used for the images stays the same however big the Level is.
+ *
+ * Each chunk can have several images (layers) of the same size, such as the
+ * darkness and the light of a Level. A ChunkCache is not thread safe, so it
+ * should only be used by one thread at a time.
+ */
+public abstract class ChunkCache {
+
+    /**
+     * The width and height of a chunk, in Tiles.
+     */
+    public static final int CHUNK_TILES = 8;
+    /**
+     * The number of chunks that are kept before the least recently visible
+     * ones are thrown away. More chunks than this are kept if they are all
+     * visible at once.
+     */
+    public static int MAX_CHUNKS = 32;
+
+    /**
+     * This class represents one chunk of the image.
+     */
+    public static class Chunk {
+
+        /**
+         * The position of the top left corner of the chunk, in pixels.
+         */
+        private final int x, y;
+        /**
+         * The images of the chunk, one for each layer.
+         */
+        private final BufferedImage[] images;
+        /**
+         * The last frame that the chunk was visible in.
+         */
+        private int frame;
+
+        /**
+         * Create a new Chunk.
+         *
+         * @param x The x-coordinate of the chunk, in pixels.
+         * @param y The y-coordinate of the chunk, in pixels.
+         * @param images The images of the chunk, one for each layer.
+         */
+        private Chunk(int x, int y, BufferedImage[] images) {
+            this.x = x;
+            this.y = y;
+            this.images = images;
+        }
+
+        /**
+         * Gets the x-coordinate of the top left corner of the chunk.
+         *
+         * @return The x-coordinate, in pixels.
+         */
+        public int getX() {
+            return x;
+        }
+
+        /**
+         * Gets the y-coordinate of the top left corner of the chunk.
+         *
+         * @return The y-coordinate, in pixels.
+         */
+        public int getY() {
+            return y;
+        }
+
+        /**
+         * Gets the image of one layer of the chunk.
+         *
+         * @param layer The layer.
+         * @return The image.
+         */
+        public BufferedImage getImage(int layer) {
+            return images[layer];
+        }
+    }
+
+    /**
+     * The width and height of a chunk, in pixels.
+     */
+    private final int chunkWidth, chunkHeight;
+    /**
+     * The number of columns and rows of chunks that cover the image.
+     */
+    private final int columns, rows;
+    /**
+     * The BufferedImage type and the number of layers of each chunk.
+     */
+    private final int imageType, layers;
+    /**
+     * The chunks that have been drawn, indexed by row * columns + column, in
+     * order from the least recently visible to the most recently visible.
+     */
+    private final LinkedHashMap<Integer, Chunk> chunks = new LinkedHashMap<Integer, Chunk>(16, 0.75f, true);
+    /**
+     * The images of chunks that have been thrown away, which are re-used for
+     * the next chunks that are drawn.
+     */
+    private final ArrayList<BufferedImage[]> spareImages = new ArrayList<BufferedImage[]>();
+    /**
+     * The chunks that were visible the last time getVisibleChunks() was
+     * called, in order from left to right and top to bottom.
+     */
+    private final ArrayList<Chunk> visibleChunks = new ArrayList<Chunk>();
+    /**
+     * The first and last columns and rows of the visible chunks.
+     */
+    private int firstColumn, lastColumn = -1, firstRow, lastRow = -1;
+    /**
+     * The number of times getVisibleChunks() has been called.
+     */
+    private int frame;
+    /**
+     * The number of chunks that have been drawn and thrown away.
+     */
+    private int drawnCount, evictedCount;
+
+    /**
+     * Create a new, empty ChunkCache.
+     *
+     * @param width The width of the whole image, in pixels.
+     * @param height The height of the whole image, in pixels.
+     * @param imageType The BufferedImage type of the chunks' images.
+     * @param layers The number of images in each chunk.
+     */
+    protected ChunkCache(int width, int height, int imageType, int layers) {
+        this.chunkWidth = CHUNK_TILES * Tile.WIDTH;
+        this.chunkHeight = CHUNK_TILES * Tile.HEIGHT;
+        this.columns = (width + chunkWidth - 1) / chunkWidth;
+        this.rows = (height + chunkHeight - 1) / chunkHeight;
+        this.imageType = imageType;
+        this.layers = layers;
+    }
+
+    /**
+     * This method draws a chunk that has just been made visible. Its images
+     * may have been used by another chunk before, so every pixel should be
+     * drawn.
+     *
+     * @param chunk The chunk to draw.
+     */
+    protected abstract void drawChunk(Chunk chunk);
+
+    /**
+     * This method returns the chunks that cover an area of the image, drawing
+     * the ones that aren't kept yet. To make room for them, the chunks that
+     * have been visible least recently are thrown away.
+     *
+     * @param x The x-coordinate of the area, in pixels.
+     * @param y The y-coordinate of the area, in pixels.
+     * @param width The width of the area, in pixels.
+     * @param height The height of the area, in pixels.
+     * @return The visible chunks, in order from left to right and top to
+     * bottom. The ArrayList is re-used by the next call to this method.
+     */
+    public ArrayList<Chunk> getVisibleChunks(int x, int y, int width, int height) {
+        frame++;
+        visibleChunks.clear();
+        firstColumn = Math.max(0, x / chunkWidth);
+        lastColumn = Math.min(columns - 1, (x + width - 1) / chunkWidth);
+        firstRow = Math.max(0, y / chunkHeight);
+        lastRow = Math.min(rows - 1, (y + height - 1) / chunkHeight);
+        if (width <= 0 || height <= 0) {
+            lastColumn = lastRow = -1;
+        }
+
+        //Mark the chunks that are already kept as visible, so that they
+        //aren't thrown away, and count the ones that need to be drawn
+        int missing = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Chunk chunk = chunks.get(row * columns + column);
+                if (chunk != null) {
+                    chunk.frame = frame;
+                } else {
+                    missing++;
+                }
+            }
+        }
+
+        //Make room for the missing chunks. Getting the visible chunks moved
+        //them to the end, so the chunks before them haven't been visible for
+        //the longest time.
+        Iterator<Chunk> iterator = chunks.values().iterator();
+        while (chunks.size() + missing > MAX_CHUNKS && iterator.hasNext()) {
+            Chunk chunk = iterator.next();
+            if (chunk.frame == frame) {
+                break;
+            }
+            spareImages.add(chunk.images);
+            iterator.remove();
+            evictedCount++;
+        }
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Chunk chunk = chunks.get(row * columns + column);
+                if (chunk == null) {
+                    chunk = new Chunk(column * chunkWidth, row * chunkHeight, takeImages());
+                    chunk.frame = frame;
+                    drawChunk(chunk);
+                    chunks.put(row * columns + column, chunk);
+                    drawnCount++;
+                }
+                visibleChunks.add(chunk);
+            }
+        }
+
+        return visibleChunks;
+    }
+
+    /**
+     * This method returns the images for a new chunk, re-using the images of
+     * a chunk that was thrown away if there is one.
+     *
+     * @return The images, one for each layer.
+     */
+    private BufferedImage[] takeImages() {
+        if (!spareImages.isEmpty()) {
+            return spareImages.remove(spareImages.size() - 1);
+        }
+
+        BufferedImage[] images = new BufferedImage[layers];
+        for (int i = 0; i < layers; i++) {
+            images[i] = new BufferedImage(chunkWidth, chunkHeight, imageType);
+        }
+        return images;
+    }
+
+    /**
+     * This method returns one of the chunks that were visible the last time
+     * getVisibleChunks() was called.
+     *
+     * @param column The column of the chunk.
+     * @param row The row of the chunk.
+     * @return The chunk, or null if it wasn't visible.
+     */
+    public Chunk getVisibleChunk(int column, int row) {
+        if (column < firstColumn || column > lastColumn || row < firstRow || row > lastRow) {
+            return null;
+        }
+        int visibleColumns = lastColumn - firstColumn + 1;
+        return visibleChunks.get((row - firstRow) * visibleColumns + column - firstColumn);
+    }
+
+    /**
+     * Gets every chunk that is kept, whether it is visible or not.
+     *
+     * @return The chunks. This must not be changed.
+     */
+    public Collection<Chunk> getChunks() {
+        return chunks.values();
+    }
+
+    /**
+     * This method returns the column of the chunk that contains an
+     * x-coordinate.
+     *
+     * @param x The x-coordinate, in pixels.
+     * @return The column, which may be outside of the image.
+     */
+    public int getColumn(int x) {
+        //Round down rather than towards 0
+        return x >= 0 ? x / chunkWidth : (x + 1) / chunkWidth - 1;
+    }
+
+    /**
+     * This method returns the row of the chunk that contains a y-coordinate.
+     *
+     * @param y The y-coordinate, in pixels.
+     * @return The row, which may be outside of the image.
+     */
+    public int getRow(int y) {
+        return y >= 0 ? y / chunkHeight : (y + 1) / chunkHeight - 1;
+    }
+
+    /**
+     * Gets the width of a chunk.
+     *
+     * @return The width, in pixels.
+     */
+    public int getChunkWidth() {
+        return chunkWidth;
+    }
+
+    /**
+     * Gets the height of a chunk.
+     *
+     * @return The height, in pixels.
+     */
+    public int getChunkHeight() {
+        return chunkHeight;
+    }
+
+    /**
+     * Gets the number of chunks that cover the whole image.
+     *
+     * @return The number of chunks.
+     */
+    public int getTotalChunks() {
+        return columns * rows;
+    }
+
+    /**
+     * Gets the number of chunks that have been drawn.
+     *
+     * @return The number of chunks drawn.
+     */
+    public int getDrawnCount() {
+        return drawnCount;
+    }
+
+    /**
+     * Gets the number of chunks that have been thrown away to make room for
+     * others.
+     *
+     * @return The number of chunks thrown away.
+     */
+    public int getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Gets the number of bytes used by the images of the chunks that are
+     * kept, including the spare images.
+     *
+     * @return The number of bytes.
+     */
+    public long getImageBytes() {
+        long bytes = 0;
+        for (Chunk chunk : chunks.values()) {
+            bytes += getImageBytes(chunk.images);
+        }
+        for (BufferedImage[] images : spareImages) {
+            bytes += getImageBytes(images);
+        }
+        return bytes;
+    }
+
+    /**
+     * This method returns the number of bytes used by the pixels of some
+     * images.
+     *
+     * @param images The images.
+     * @return The number of bytes.
+     */
+    private static long getImageBytes(BufferedImage[] images) {
+        long bytes = 0;
+        for (BufferedImage image : images) {
+            DataBuffer buffer = image.getRaster().getDataBuffer();
+            bytes += (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        }
+        return bytes;
+    }
+}
@@ -6,7 +6,6 @@ import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
-import java.awt.geom.Area;
 import java.util.ArrayList;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -33,22 +32,15 @@ public class ContentPanel extends JPanel {
      * A reference to the HUDPanel.
      */
     private HUDPanel hudPanel;
-    /**
-     * A reference to the current Level. This must be renewed with new Levels.
-     */
-    private Level currentLevel;
     /**
      * A reference to the Player, this should never be renewed.
      */
     private Player player;
     /**
-     * A reference to the Enemy ArrayList, this should never be renewed.
+     * The Simulation that holds the rules of the game, and is ticked by the
+     * Task.
      */
-    private ArrayList<Enemy> enemies;
-    /**
-     * A reference to the Projectile ArrayList, this should never be renewed.
-     */
-    private ArrayList<Projectile> projectiles;
+    private Simulation simulation;
     /**
      * A reference to the current Task. This essentially represents the current
      * thread.
@@ -72,6 +64,34 @@ public class ContentPanel extends JPanel {
      * shown.
      */
     private boolean showGameWinScreen;
+    /**
+     * This keeps track of the rate and the time of the frames drawn by
+     * render().
+     */
+    private FrameStats frameStats;
+    /**
+     * This keeps track of the rate and the time of the ticks done by the
+     * Task, which is the cost of simulating the game without drawing it.
+     */
+    private FrameStats tickStats;
+    /**
+     * The RenderSnapshot of the last tick, or null if there hasn't been one
+     * yet. The update thread replaces it at the end of every tick, and the
+     * paint thread only ever draws from it, so they never share the
+     * ArrayLists or the Actors.
+     */
+    private volatile RenderSnapshot snapshot;
+    /**
+     * The value of System.nanoTime() when the Actors were last ticked. While
+     * the game is paused this stays the same, so the Actors are drawn where
+     * they stopped rather than where they were before the last tick.
+     */
+    private long lastTickTime;
+    /**
+     * The GameCanvas that the game is drawn on when active rendering is
+     * enabled, or null if the ContentPanel is repainted by Swing.
+     */
+    private GameCanvas gameCanvas;
 
     /**
      * This class represents the update thread for the ContentPanel.
@@ -80,128 +100,43 @@ public class ContentPanel extends JPanel {
 
         @Override
         /**
-         * This method is called MainApplet.FPS times per second and is
-         * responsible for updating all elements of the game, including the
-         * Player, the Enemies, the Projectiles, and doing any collision or
-         * other logic between them.
+         * This method is called MainApplet.TICK_RATE times per second. While
+         * the game is running, it ticks the Simulation, which moves each Actor
+         * by a fixed step. Either way, it publishes a RenderSnapshot for
+         * render() to draw.
          */
         public void run() {
+            long start = System.nanoTime();
+
             if (runState) {
-                //Keep focus on the ContentPanel for the keyboard
-                requestFocus();
-
-                //All code in this if statement required player to not be null.
-                if (player != null) {
-                    //Update the player
-                    player.update();
-
-                    //If the player's dead, end the level
-                    if (player.isDead()) {
-                        mainApplet.endLevel(false);
-                    }
-
-                    //Do the following for all PowerUps in the Level
-                    ArrayList<PowerUp> powerUps = currentLevel.getPowerUps();
-                    for (int i = 0; i < powerUps.size(); i++) {
-                        PowerUp powerUp = powerUps.get(i);
-                        if (powerUp != null) {
-                            //If the player collides with a PowerUp
-                            if (powerUp.getPosition().equals(
-                                    player.getPosition())) {
-                                powerUp.doPowerUp(player);
-                            }
-
-                            //If the PowerUp must be destroyed
-                            if (powerUp.getDestroyed()) {
-                                powerUps.remove(i--);
-                            }
-                        }
-                    }
-
-                    //Do the following for all Enemies
-                    for (int i = 0; i < enemies.size(); i++) {
-                        Enemy enemy = enemies.get(i);
-                        if (enemy != null) {
-                            //Update the Enemy
-                            enemy.update();
-
-                            Tile enemyPosition = enemy.getPosition();
-
-                            //Check collision between Enemy and Player
-                            if (enemyPosition != null) {
-                                if (enemyPosition.equals(player.position)) {
-                                    player.doDamage(enemy.getDamageAmount());
-                                }
-                            }
-
-                            //Do PowerUps for all Enemies (although there is no
-                            //PowerUp for Enemies, this provides infrastructure
-                            //for there to be).
-                            for (int a = 0; a < powerUps.size(); a++) {
-                                PowerUp powerUp = powerUps.get(a);
-                                if (powerUp != null) {
-                                    if (powerUp.getPosition().equals(
-                                            enemy.getPosition())) {
-                                        powerUp.doPowerUp(enemy);
-                                    }
-                                }
-                            }
-
-                            //Check collisions with Projectiles
-                            for (int a = 0; a < projectiles.size(); a++) {
-                                Projectile projectile = projectiles.get(a);
-
-                                //Check both Projectile position and Enemy position
-                                //as well as Projectile target and Enemy position
-                                boolean didCollide = projectile.getPosition().equals(enemyPosition)
-                                        || (projectile.getTarget() != null && projectile.getTarget().equals(enemyPosition));
-
-                                //If they collided
-                                if (didCollide) {
-                                    // If the projectile hasn't already been
-                                    // destroyed
-                                    if (!projectile.getDestroyProjectile()) {
-                                        //Damage Enemy and destroy the Projectile
-                                        enemy.doDamage(Projectile.DAMAGE_TO_ENEMY);
-                                        projectile.destroyProjectile();
-                                    }
-                                }
-                            }
-
-                            //Remove any dead Enemies
-                            if (enemy.isDead()) {
-                                enemies.remove(enemy);
-                            }
-                        }
-                    }
-
-                    //If all Enemies are dead
-                    if (enemies.size() <= 0) {
-                        // Win
-                        mainApplet.endLevel(true);
-                    }
-                }
+                lastTickTime = start;
 
-                //Do the following for all Projectiles
-                for (int i = 0; i < projectiles.size(); i++) {
-                    Projectile projectile = projectiles.get(i);
-                    if (projectile != null) {
-                        //If the projectile isn't null, update it
-                        projectile.update();
-
-                        //Remove any destroyed Projectiles
-                        if (projectile.getDestroyProjectile()) {
-                            projectiles.remove(i--);
-                        }
-                    }
+                //Keep focus on the ContentPanel (or GameCanvas) for the keyboard
+                if (gameCanvas != null) {
+                    gameCanvas.requestFocus();
+                } else {
+                    requestFocus();
                 }
+
+                //Advance the game by one tick
+                simulation.tick();
             }
 
-            //Keep the area that is lit up to date
-            updateLights();
+            //Keep the area that is lit up to date, and publish what must be
+            //drawn for this tick
+            RenderSnapshot newSnapshot = simulation.makeSnapshot(lastTickTime);
+            if (newSnapshot != null) {
+                snapshot = newSnapshot;
+                hudPanel.setSnapshot(newSnapshot);
+            }
 
-            //Request for the Panels to be repainted
-            repaint();
+            tickStats.frameFinished(start, System.nanoTime());
+
+            //Request for the Panels to be repainted. The GameCanvas draws
+            //itself, so the ContentPanel only needs repainting without one.
+            if (gameCanvas == null) {
+                repaint();
+            }
             hudPanel.repaint();
         }
     }
@@ -222,15 +157,29 @@ public class ContentPanel extends JPanel {
 
         this.mainApplet = mainApplet;
         this.hudPanel = hudPanel;
-        this.currentLevel = currentLevel;
         this.player = player;
-        this.enemies = enemies;
-        this.projectiles = projectiles;
+        this.simulation = new Simulation(mainApplet, currentLevel, player, enemies, projectiles);
+
+        frameStats = new FrameStats("Frames");
+        tickStats = new FrameStats("Ticks");
+        lastTickTime = System.nanoTime();
 
         //Send keyboard information directly to the Player
         addKeyListener(player);
     }
 
+    /**
+     * This method sets the GameCanvas that the game is drawn on. Once it is
+     * set, the ContentPanel stops asking Swing to repaint it, and keyboard
+     * focus is kept on the GameCanvas instead.
+     *
+     * @param gameCanvas The GameCanvas that draws the game.
+     */
+    public void setGameCanvas(GameCanvas gameCanvas) {
+        this.gameCanvas = gameCanvas;
+        gameCanvas.addKeyListener(player);
+    }
+
     /**
      * This method is responsible for displaying the win/lose screen and
      * delaying for a period of time between Levels.
@@ -259,7 +208,7 @@ public class ContentPanel extends JPanel {
 
     /**
      * This method cancels any existing tasks associated with the ContentPanel
-     * and starts a new one at the proper FPS on the designated Timer.
+     * and starts a new one at the proper TICK_RATE on the designated Timer.
      *
      * @param timer The Timer object to start a new Task on.
      */
@@ -269,14 +218,14 @@ public class ContentPanel extends JPanel {
         }
 
         currentTask = new Task();
-        //Schedule the new Task at the FPS defined in MainApplet
-        timer.scheduleAtFixedRate(currentTask, 0, 1000 / MainApplet.FPS);
+        //Schedule the new Task at the TICK_RATE defined in MainApplet
+        timer.scheduleAtFixedRate(currentTask, 0, 1000 / MainApplet.TICK_RATE);
     }
 
     /**
      * This method toggles the ContentPanel thread updating most things or not.
      * NOTE: by pausing during a game, any timer that is being kept track of in
-     * terms of System.currentTimeMillis() will most likely be triggered the
+     * terms of the GameClock will most likely be triggered the
      * instant the game is resumed. An example of this is the SearchEnemy. If
      * the game is paused with him paused, he will immediately chase after the
      * game is un-paused. This is the way it should be, and can be considered a
@@ -314,23 +263,83 @@ public class ContentPanel extends JPanel {
     }
 
     /**
-     * This method is responsible for drawing everything that must be drawn on
-     * the ContentPanel, including the Level, the Player, the Enemies, the
-     * Projectiles, the PowerUps etc.
+     * This method is responsible for drawing the ContentPanel when it is
+     * repainted by Swing. It is not used when the game is drawn by a
+     * GameCanvas instead.
      *
      * @param g The Graphics object to draw to
      */
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        //Cast to Graphics2D for more functionality
-        Graphics2D g2d = ((Graphics2D) g);
+        render((Graphics2D) g, getWidth(), getHeight());
+    }
 
-        if (currentLevel != null) {
-            //Translate the drawing area to the middle of the Panel
-            int levelWidth = currentLevel.getWidthPixels(), levelHeight = currentLevel.getHeightPixels();
-            g2d.translate((getWidth() - levelWidth) / 2, (getHeight() - levelHeight) / 2);
-            g2d.setClip(0, 0, levelWidth, levelHeight);
+    /**
+     * This method is responsible for drawing everything that must be drawn on
+     * the ContentPanel, including the Level, the Player, the Enemies, the
+     * Projectiles, the PowerUps etc. It is used both by paintComponent() and by
+     * the GameCanvas, and keeps track of how often and how quickly the frames
+     * are drawn.
+     *
+     * @param g The Graphics2D object to draw to
+     * @param width The width of the area being drawn to
+     * @param height The height of the area being drawn to
+     */
+    public void render(Graphics2D g, int width, int height) {
+        long start = System.nanoTime();
+
+        //Draw the game on a copy, so that the frame statistics aren't moved
+        //or clipped
+        Graphics2D g2d = (Graphics2D) g.create();
+        drawGame(g2d, width, height, snapshot, start);
+        g2d.dispose();
+
+        frameStats.frameFinished(start, System.nanoTime());
+        if (MainApplet.SHOW_FRAME_STATS) {
+            frameStats.draw(g, 5, 15);
+            tickStats.draw(g, 5, 30);
+        }
+    }
+
+    /**
+     * This method works out how far between the last tick and the next one a
+     * frame is being drawn.
+     *
+     * @param snapshot The RenderSnapshot of the last tick.
+     * @param now The value of System.nanoTime() when the frame is drawn.
+     * @return A value from 0 (the last tick just finished) to 1 (the next tick
+     * is due).
+     */
+    private double getTickAlpha(RenderSnapshot snapshot, long now) {
+        double tickLength = 1000000000.0 / MainApplet.TICK_RATE;
+        double alpha = (now - snapshot.getTickTime()) / tickLength;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    /**
+     * This method draws the game, or the win/lose screens.
+     *
+     * @param g2d The Graphics2D object to draw to
+     * @param width The width of the area being drawn to
+     * @param height The height of the area being drawn to
+     * @param snapshot The RenderSnapshot of the last tick, which may be null
+     * @param now The value of System.nanoTime() when the frame is drawn
+     */
+    private void drawGame(Graphics2D g2d, int width, int height, RenderSnapshot snapshot, long now) {
+        //Everything drawn comes from the snapshot, including the Level, so a
+        //frame never mixes two Levels while the Level is being changed
+        Level level = snapshot == null ? null : snapshot.getLevel();
+
+        //The size of the part of the Level that is shown
+        int viewWidth = width, viewHeight = height;
+        if (level != null) {
+            //Translate the drawing area to the middle of the Panel. Levels
+            //that are bigger than the Panel fill it.
+            viewWidth = Math.min(width, level.getWidthPixels());
+            viewHeight = Math.min(height, level.getHeightPixels());
+            g2d.translate((width - viewWidth) / 2, (height - viewHeight) / 2);
+            g2d.clipRect(0, 0, viewWidth, viewHeight);
         }
 
         //Turn on antialiasing. This makes the light circles look non-pixelated.
@@ -340,114 +349,66 @@ public class ContentPanel extends JPanel {
         if (showGameWinScreen) {
             //If the win screen must be shown
             g2d.setColor(Color.BLACK);
-            g2d.fillRect(0, 0, currentLevel.getWidthPixels(), currentLevel.getHeightPixels());
+            g2d.fillRect(0, 0, viewWidth, viewHeight);
 
             g2d.setColor(Color.WHITE);
-            drawCenterScreen(g2d, "CONGRATULATIONS! YOU WIN!");
+            drawCenterScreen(g2d, "CONGRATULATIONS! YOU WIN!", viewWidth, viewHeight);
         } else if (showLevelWinScreen) {
             //If the win screen must be shown
             g2d.setColor(Color.BLACK);
-            g2d.fillRect(0, 0, currentLevel.getWidthPixels(), currentLevel.getHeightPixels());
+            g2d.fillRect(0, 0, viewWidth, viewHeight);
 
             g2d.setColor(Color.WHITE);
-            drawCenterScreen(g2d, "Congratulations, you've advanced to the next level.");
+            drawCenterScreen(g2d, "Congratulations, you've advanced to the next level.", viewWidth, viewHeight);
         } else if (showLevelLoseScreen) {
             //If the lose screen must be shown
             g2d.setColor(Color.RED);
-            g2d.fillRect(0, 0, currentLevel.getWidthPixels(), currentLevel.getHeightPixels());
+            g2d.fillRect(0, 0, viewWidth, viewHeight);
 
             g2d.setColor(Color.BLACK);
-            drawCenterScreen(g2d, "You have died. Going back one level.");
+            drawCenterScreen(g2d, "You have died. Going back one level.", viewWidth, viewHeight);
         } else {
-            //Make sure currentLevel and player are not null
-            if (currentLevel == null || player == null) {
+            //Make sure there has been a tick to draw
+            if (snapshot == null) {
                 return;
             }
 
-            //Draw the Level first
-            currentLevel.draw(g2d);
-
-            //Draw the PowerUps
-            ArrayList<PowerUp> powerUps = currentLevel.getPowerUps();
-            for (int i = 0; i < powerUps.size(); i++) {
-                PowerUp powerUp = powerUps.get(i);
-                if (powerUp != null) {
-                    powerUp.draw(g2d);
-                }
-            }
+            double alpha = getTickAlpha(snapshot, now);
 
-            //Draw the Player
-            player.draw(g2d);
+            //Move the camera to follow the Player, without showing anything
+            //past the edges of the Level. Only the part of the Level inside
+            //the clip is drawn.
+            int cameraX = snapshot.getPlayerCenterX(alpha) - viewWidth / 2;
+            int cameraY = snapshot.getPlayerCenterY(alpha) - viewHeight / 2;
+            cameraX = Math.max(0, Math.min(level.getWidthPixels() - viewWidth, cameraX));
+            cameraY = Math.max(0, Math.min(level.getHeightPixels() - viewHeight, cameraY));
+            g2d.translate(-cameraX, -cameraY);
 
-            //Draw the Enemies
-            for (int i = 0; i < enemies.size(); i++) {
-                Enemy enemy = enemies.get(i);
-                if (enemy != null) {
-                    enemy.draw(g2d);
-                }
-            }
+            //Draw the Level first
+            level.draw(g2d);
 
-            //Draw the Projectiles
-            for (int i = 0; i < projectiles.size(); i++) {
-                Projectile projectile = projectiles.get(i);
-                if (projectile != null) {
-                    projectile.draw(g2d);
-                }
-            }
+            //Draw the PowerUps, the Player, the Enemies and the Projectiles
+            snapshot.drawSprites(g2d, alpha);
 
             //Draw the darkness and the light area on top of everything else
-            currentLevel.drawLight(g2d);
+            level.drawLight(g2d, snapshot.getLights());
         }
     }
 
-    private void drawCenterScreen(Graphics2D g, String text) {
-        FontMetrics metrics = g.getFontMetrics(g.getFont());
-
-        int stringWidth = metrics.stringWidth(text);
-        g.drawString(text, currentLevel.getWidthPixels() / 2 - stringWidth / 2, currentLevel.getHeightPixels() / 2);
-    }
-
     /**
-     * This method is responsible for collecting all light area that is lit up
-     * by Enemies and Projectiles and the Player and sending it to the Level.
+     * This method draws text in the center of the part of the Level that is
+     * shown.
+     *
+     * @param g The Graphics2D object to draw to
+     * @param text The text to draw
+     * @param width The width of the part of the Level that is shown
+     * @param height The height of the part of the Level that is shown
      */
-    public void updateLights() {
-        //Level and Player must not be null
-        if (currentLevel == null || player == null) {
-            return;
-        }
-
-        //Represents the portion of the Level that is lit for this iteration
-        Area tempLightArea = new Area();
-
-        if (player != null) {
-            Area playerLight = player.getLight();
-            currentLevel.setCurrentLightArea(playerLight);
-
-            //Add the playerLight to the temp area so that there is no "flicker"
-            //when the map is first displayed. This "flicker" is do to the
-            //permLightArea not being update until the Level thread executes.
-            tempLightArea.add(playerLight);
-        }
-
-        //Add the light for all Enemies
-        for (int i = 0; i < enemies.size(); i++) {
-            Enemy enemy = enemies.get(i);
-            if (enemy != null) {
-                tempLightArea.add(enemy.getLight());
-            }
-        }
-
-        //Add the light for all Projectiles
-        for (int i = 0; i < projectiles.size(); i++) {
-            Projectile projectile = projectiles.get(i);
-            if (projectile != null) {
-                tempLightArea.add(projectile.getLight());
-            }
-        }
+    private void drawCenterScreen(Graphics2D g, String text, int width, int height) {
+        FontMetrics metrics = g.getFontMetrics(g.getFont());
 
-        //The temp lit area is the area that does not expand over time.
-        currentLevel.setTempLitArea(tempLightArea);
+        int stringWidth = metrics.stringWidth(text);
+        g.drawString(text, width / 2 - stringWidth / 2, height / 2);
     }
 
     /**
@@ -457,6 +418,6 @@ public class ContentPanel extends JPanel {
      * @param newLevel The new Level to display and update.
      */
     void changeLevel(Level newLevel) {
-        this.currentLevel = newLevel;
+        simulation.changeLevel(newLevel);
     }
 }
@@ -1,10 +1,9 @@
 package finalproject;
 
 
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Random;
 
 /**
  * This class is the superclass of all Enemy objects, and is a subclass of
@@ -39,9 +38,11 @@ public abstract class Enemy extends Actor {
      */
     protected Tile lastPlayerPosition;
     /**
-     * This is the shortest path to the Player, determined by getPath() in
-     * Level. The first Tile in the path is on the top of the stack, while the
-     * last Tile in the path is on the bottom of the stack.
+     * This is the shortest path to the Player, determined by getFlowPath() in
+     * Level (or by the planner, if the Enemy has one). The first Tile in the
+     * path is on the top of the stack, while the last Tile in the path is on
+     * the bottom of the stack. This is only used by Enemies that do not follow
+     * the flow field (see followFlowField()), such as the SearchEnemy.
      */
     protected ArrayList<Tile> pathToPlayer;
     /**
@@ -54,6 +55,20 @@ public abstract class Enemy extends Actor {
      * reaching its destination (emptying the pathToPlayer ArrayList).
      */
     protected int retargetTime;
+    /**
+     * The PathPlanner used to build pathToPlayer. If this is null, the path is
+     * read from the Level's flow field instead. Subclasses can opt into a
+     * different pathfinding algorithm by setting this in their constructor.
+     */
+    protected PathPlanner planner;
+    /**
+     * The Random used for all of this Enemy's random choices. Each Enemy has
+     * its own, so the choices it makes don't depend on the order that the
+     * Enemies are updated in, even when they are updated on several threads
+     * at once. It is seeded from the Level, so the same Level seed gives the
+     * same choices.
+     */
+    protected Random random;
 
     /**
      * Create an Enemy based on the parameters below.
@@ -77,6 +92,7 @@ public abstract class Enemy extends Actor {
         this.damage = damage;
         this.health = health;
         this.retargetTime = retargetTime;
+        random = currentLevel == null ? new Random() : new Random(currentLevel.nextSeed());
 
         //Enemies have a light radius half that of the default.
         lightRadius /= 2;
@@ -87,7 +103,7 @@ public abstract class Enemy extends Actor {
         xDefaultFrame = -1;
         yDefaultFrame = -1;
     }
-    long timeSinceRetarget = 0;
+    long timeSinceRetarget = GameClock.NEVER;
 
     @Override
     /**
@@ -106,16 +122,24 @@ public abstract class Enemy extends Actor {
             //Record the position of the Player
             Tile curPlayerPosition = player.getPosition();
 
+            //Make sure the flow field shared by all Enemies leads to the Player.
+            //This only does any work for the first Enemy to notice that the
+            //Player has moved. The Simulation does it before ticking any
+            //Enemies, so it never does any work while they're ticked at once.
+            if (followFlowField() || planner == null) {
+                currentLevel.updateFlowField(curPlayerPosition);
+            }
+
             //Record the time
-            long now = System.currentTimeMillis();
+            long now = GameClock.getClock().millis();
             if (updatePath()) {
-                //If the path isn't null, clear it
-                if (pathToPlayer != null) {
+                if (followFlowField()) {
+                    //The flow field is always up to date, so no path is needed
                     pathToPlayer.clear();
+                } else {
+                    //Get a new path
+                    findPathToPlayer(position);
                 }
-                //Get a new path
-                currentLevel.getPath(pathToPlayer, position,
-                        curPlayerPosition);
 
                 //Record the time that we last retargeted
                 timeSinceRetarget = now;
@@ -129,14 +153,16 @@ public abstract class Enemy extends Actor {
                 if (chooseRandom()) {
                     //If we want to choose a random Tile
                     target = getRandomAdjacent();
-                    if (target != null && pathToPlayer != null) {
+                    if (target != null && !followFlowField()) {
                         //Choose the random Tile and build a new Path from
                         //where we're going to be, to the Player
-                        currentLevel.getPath(pathToPlayer, target,
-                                curPlayerPosition);
+                        findPathToPlayer(target);
                     }
-                } else if (pathToPlayer != null) {
-                    //If we don't want to choose random, and we have a path
+                } else if (followFlowField()) {
+                    //Take the next step towards the Player from the flow field
+                    target = currentLevel.getFlowStep(position);
+                } else {
+                    //If we don't want to choose random, follow our path
                     int pathSize = pathToPlayer.size();
                     if (pathSize > 0) {
                         //Take elements off the top of the path
@@ -150,18 +176,32 @@ public abstract class Enemy extends Actor {
             updateAnimation();
 
             //If for some reason, the path cannot be followed,
-            if (!moveToTarget()) {
+            if (!moveToTarget() && !followFlowField()) {
                 //Regenerate the path
-                currentLevel.getPath(pathToPlayer, position,
-                        curPlayerPosition);
+                findPathToPlayer(position);
             }
         }
     }
 
+    /**
+     * This method fills pathToPlayer with a path from the given Tile to the
+     * Player, using the Enemy's PathPlanner if it has one, or the flow field if
+     * it doesn't. If there is no path, pathToPlayer is left empty.
+     *
+     * @param from The Tile that the path should start from.
+     */
+    private void findPathToPlayer(Tile from) {
+        if (planner == null) {
+            currentLevel.getFlowPath(pathToPlayer, from);
+        } else if (planner.getPath(pathToPlayer, from, player.getPosition()) == null) {
+            pathToPlayer.clear();
+        }
+    }
+
     /**
      * This function determines whether or not the Enemy should choose a random
      * direction or not. The way this should be done is by checking if
-     * Math.random() * 10 is less than some number representing the number of
+     * random.nextInt(10) is less than some number representing the number of
      * times out of 10 that a random Tile should be chosen.
      *
      * @return Whether or not a random Tile should be chosen.
@@ -171,6 +211,18 @@ public abstract class Enemy extends Actor {
         return false;
     }
 
+    /**
+     * This method determines whether the Enemy takes each step straight from
+     * the Level's flow field, or commits to a whole path (pathToPlayer) and
+     * follows it to the end. For a basic Enemy, the flow field is used, so it
+     * always heads towards where the Player is now.
+     *
+     * @return Whether or not the Enemy follows the flow field.
+     */
+    protected boolean followFlowField() {
+        return true;
+    }
+
     /**
      * This method determines when a new path to the Player must be determined.
      * For a basic Enemy, this occurs when the Player has moved from where the
@@ -191,10 +243,8 @@ public abstract class Enemy extends Actor {
      * @return A random Tile that is adjacent to the Enemy's position.
      */
     private Tile getRandomAdjacent() {
-        int direction = (int) (Math.random() * 4);
-        //Limit the random direction to be from 0 - 3
-        //The only time direction will be 4 is if Math.random() returns 1.0
-        direction = direction >= 4 ? 3 : direction;
+        //Choose a random direction from 0 - 3
+        int direction = random.nextInt(4);
 
         //Get a different direction based on each outcome
         switch (direction) {
@@ -210,25 +260,6 @@ public abstract class Enemy extends Actor {
         }
     }
 
-    @Override
-    /**
-     * This method returns an Area object representing the Area around the Enemy
-     * that is not shown as darkness in the Level. Essentially, this means that
-     * the Area defined by this function is "cut out" from the black that covers
-     * the Level.
-     */
-    protected Area getLight() {
-        if (position == null) {
-            return new Area();
-        }
-
-        int x = position.getXPixels() + xMove + Tile.WIDTH / 2;
-        int y = position.getYPixels() + yMove + Tile.HEIGHT / 2;
-
-        return new Area(new Ellipse2D.Float(x - lightRadius, y
-                - lightRadius, lightRadius * 2, lightRadius * 2));
-    }
-
     /**
      * Gets the amount of damage that this Enemy does to the Player.
      *
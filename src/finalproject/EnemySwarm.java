@@ -0,0 +1,415 @@
+package finalproject;
+
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class holds a large number of Enemies that follow the Level's flow
+ * field, stored as arrays of numbers rather than as one object per Enemy. The
+ * position, target, health and movement of every Enemy are kept side by side
+ * in the arrays, so updating thousands of them is a single loop over a few
+ * arrays that fit in the cache, with no Tiles or ArrayLists per Enemy.
+ *
+ * The Enemies in a swarm behave like the existing Enemy types that follow the
+ * flow field: a SIMPLE Enemy behaves like a SimpleEnemy, and a RANDOM Enemy
+ * behaves like a RandomEnemy, using the same speed, damage, health and
+ * random factor. SearchEnemies commit to whole paths, so they stay objects.
+ * Unlike the Enemy objects, all the Enemies in a swarm share one animation
+ * frame.
+ */
+public class EnemySwarm {
+
+    /**
+     * The types of Enemy that a swarm can hold.
+     */
+    public static final int SIMPLE = 0, RANDOM = 1;
+    /**
+     * The speed, damage, health, random factor and number of animation frames
+     * of each type of Enemy, indexed by type.
+     */
+    private static final double[] SPEEDS = {SimpleEnemy.SPEED, RandomEnemy.SPEED};
+    private static final int[] DAMAGES = {SimpleEnemy.DAMAGE, RandomEnemy.DAMAGE};
+    private static final int[] HEALTHS = {SimpleEnemy.HEALTH, RandomEnemy.HEALTH};
+    private static final int[] RANDOM_CHOICES = {0, RandomEnemy.RANDOM_CHOICE};
+    private static final int[] NUM_FRAMES = {SimpleEnemy.NUM_FRAMES, RandomEnemy.NUM_FRAMES};
+    /**
+     * The rows of the sprite sheet for each direction of movement.
+     */
+    private static final byte DOWN = 0, LEFT = 1, RIGHT = 2, UP = 3;
+    /**
+     * The Level that the Enemies are in.
+     */
+    private final Level level;
+    /**
+     * The width of the Level, in Tiles.
+     */
+    private final int width;
+    /**
+     * The number of Enemies in the swarm. Only the first count elements of
+     * each array are used.
+     */
+    private int count;
+    /**
+     * The type of each Enemy.
+     */
+    private byte[] types;
+    /**
+     * The direction that each Enemy is facing, as a row of its sprite sheet.
+     */
+    private byte[] directions;
+    /**
+     * The index (x + y * width) of the Tile that each Enemy is on.
+     */
+    private int[] tiles;
+    /**
+     * The index of the Tile that each Enemy is moving to, or -1 if it has
+     * finished moving.
+     */
+    private int[] targets;
+    /**
+     * How far, in pixels, each Enemy has moved towards its target.
+     */
+    private int[] moves;
+    /**
+     * The number of pixels that each Enemy moves every tick.
+     */
+    private int[] speeds;
+    /**
+     * The health of each Enemy.
+     */
+    private int[] healths;
+    /**
+     * The position, in pixels, of the top left corner of each Enemy.
+     */
+    private int[] xPixels, yPixels;
+    /**
+     * The position, in pixels, of each Enemy before the last tick.
+     */
+    private int[] previousX, previousY;
+    /**
+     * The animation frame shared by every Enemy, and the time on the GameClock
+     * that it last changed.
+     */
+    private int frame;
+    private long lastFrameTime = GameClock.NEVER;
+    /**
+     * The Random used by the RANDOM Enemies to choose directions. It is seeded
+     * from the Level.
+     */
+    private Random random;
+    /**
+     * The SpriteAtlas of each type of Enemy, which are looked up the first
+     * time they are needed.
+     */
+    private SpriteAtlas[] atlases = new SpriteAtlas[NUM_FRAMES.length];
+
+    /**
+     * Create a new, empty EnemySwarm.
+     *
+     * @param level The Level that the Enemies will be in.
+     */
+    public EnemySwarm(Level level) {
+        this.level = level;
+        this.width = level.getWidth();
+        this.random = new Random(level.nextSeed());
+        setCapacity(16);
+    }
+
+    /**
+     * This method changes the length of the arrays, keeping the Enemies that
+     * are already in them.
+     *
+     * @param capacity The new length of the arrays.
+     */
+    private void setCapacity(int capacity) {
+        types = types == null ? new byte[capacity] : Arrays.copyOf(types, capacity);
+        directions = directions == null ? new byte[capacity] : Arrays.copyOf(directions, capacity);
+        tiles = tiles == null ? new int[capacity] : Arrays.copyOf(tiles, capacity);
+        targets = targets == null ? new int[capacity] : Arrays.copyOf(targets, capacity);
+        moves = moves == null ? new int[capacity] : Arrays.copyOf(moves, capacity);
+        speeds = speeds == null ? new int[capacity] : Arrays.copyOf(speeds, capacity);
+        healths = healths == null ? new int[capacity] : Arrays.copyOf(healths, capacity);
+        xPixels = xPixels == null ? new int[capacity] : Arrays.copyOf(xPixels, capacity);
+        yPixels = yPixels == null ? new int[capacity] : Arrays.copyOf(yPixels, capacity);
+        previousX = previousX == null ? new int[capacity] : Arrays.copyOf(previousX, capacity);
+        previousY = previousY == null ? new int[capacity] : Arrays.copyOf(previousY, capacity);
+    }
+
+    /**
+     * This method adds an Enemy to the swarm.
+     *
+     * @param type The type of Enemy (SIMPLE or RANDOM).
+     * @param position The Tile that the Enemy starts on.
+     */
+    public void add(int type, Tile position) {
+        if (count == tiles.length) {
+            setCapacity(count * 2);
+        }
+
+        int i = count++;
+        types[i] = (byte) type;
+        directions[i] = DOWN;
+        tiles[i] = position.getX() + position.getY() * width;
+        targets[i] = -1;
+        moves[i] = 0;
+        //Tile.WIDTH / 8 is the standard speed of the player at the standard
+        //tick rate, just like in Actor.doMove()
+        double tickScale = (double) Actor.STANDARD_TICK_RATE / MainApplet.TICK_RATE;
+        speeds[i] = (int) (SPEEDS[type] * Tile.WIDTH / 8 * tickScale);
+        healths[i] = HEALTHS[type];
+        xPixels[i] = previousX[i] = position.getXPixels();
+        yPixels[i] = previousY[i] = position.getYPixels();
+    }
+
+    /**
+     * This method removes an Enemy from the swarm by moving the last Enemy
+     * into its place.
+     *
+     * @param i The index of the Enemy to remove.
+     */
+    private void remove(int i) {
+        int last = --count;
+        types[i] = types[last];
+        directions[i] = directions[last];
+        tiles[i] = tiles[last];
+        targets[i] = targets[last];
+        moves[i] = moves[last];
+        speeds[i] = speeds[last];
+        healths[i] = healths[last];
+        xPixels[i] = xPixels[last];
+        yPixels[i] = yPixels[last];
+        previousX[i] = previousX[last];
+        previousY[i] = previousY[last];
+    }
+
+    /**
+     * This method advances every Enemy in the swarm by one tick. Each Enemy
+     * chooses where to go, moves, and then collides with the Player and the
+     * Projectiles, in the same order as the update thread does for the Enemy
+     * objects. Enemies that die are removed.
+     *
+     * @param player The Player that the Enemies chase.
+     */
+    public void tick(Player player) {
+        if (count == 0) {
+            return;
+        }
+
+        Tile playerPosition = player.getPosition();
+        int playerTile = playerPosition == null ? -1 : playerPosition.getX() + playerPosition.getY() * width;
+        level.updateFlowField(playerPosition);
+        OccupancyGrid<Projectile> projectileGrid = level.getProjectileGrid();
+
+        //Every Enemy shares one animation frame
+        long now = GameClock.getClock().millis();
+        if (now - lastFrameTime > 1000 / Enemy.FPS) {
+            frame++;
+            lastFrameTime = now;
+        }
+
+        for (int i = 0; i < count; i++) {
+            previousX[i] = xPixels[i];
+            previousY[i] = yPixels[i];
+
+            //If we're not halfway between Tiles, choose the next Tile
+            if (targets[i] < 0) {
+                int target;
+                int randomChoice = RANDOM_CHOICES[types[i]];
+                if (randomChoice > 0 && random.nextInt(10) < randomChoice) {
+                    //Random moves may lead into walls, unlike the flow field
+                    target = getRandomAdjacent(tiles[i]);
+                    if (target >= 0 && level.isWall(target)) {
+                        target = -1;
+                    }
+                } else {
+                    target = level.getFlowStep(tiles[i]);
+                }
+
+                if (target >= 0) {
+                    targets[i] = target;
+                    moves[i] = 0;
+                    directions[i] = getDirection(tiles[i], target);
+                }
+            }
+
+            //Move towards the target, and arrive once a whole Tile has been
+            //covered
+            if (targets[i] >= 0) {
+                int speed = speeds[i];
+                moves[i] += speed;
+                byte direction = directions[i];
+                int distance = direction == LEFT || direction == RIGHT ? Tile.WIDTH : Tile.HEIGHT;
+                if (moves[i] >= distance) {
+                    tiles[i] = targets[i];
+                    targets[i] = -1;
+                    moves[i] = 0;
+                    xPixels[i] = (tiles[i] % width) * Tile.WIDTH;
+                    yPixels[i] = (tiles[i] / width) * Tile.HEIGHT;
+                } else if (direction == LEFT) {
+                    xPixels[i] -= speed;
+                } else if (direction == RIGHT) {
+                    xPixels[i] += speed;
+                } else if (direction == UP) {
+                    yPixels[i] -= speed;
+                } else {
+                    yPixels[i] += speed;
+                }
+            }
+
+            //Check collision between the Enemy and the Player
+            if (tiles[i] == playerTile) {
+                player.doDamage(DAMAGES[types[i]]);
+            }
+
+            //Check collisions with the Projectiles on the Enemy's Tile
+            ArrayList<Projectile> hits = projectileGrid.get(tiles[i]);
+            if (hits != null) {
+                for (int a = 0; a < hits.size(); a++) {
+                    Projectile projectile = hits.get(a);
+                    if (!projectile.getDestroyProjectile()) {
+                        healths[i] -= Projectile.DAMAGE_TO_ENEMY;
+                        projectile.destroyProjectile();
+                    }
+                }
+            }
+
+            //Remove the Enemy if it's dead, and update the one that takes its
+            //place
+            if (healths[i] <= 0) {
+                remove(i--);
+            }
+        }
+    }
+
+    /**
+     * This method returns a random Tile that is adjacent to a Tile, just like
+     * Enemy.getRandomAdjacent().
+     *
+     * @param tile The index of the Tile.
+     * @return The index of a random adjacent Tile, or -1 if the chosen
+     * direction leads off of the Level.
+     */
+    private int getRandomAdjacent(int tile) {
+        int x = tile % width, y = tile / width;
+        switch (random.nextInt(4)) {
+            case 0:
+                return x > 0 ? tile - 1 : -1;
+            case 1:
+                return x < width - 1 ? tile + 1 : -1;
+            case 2:
+                return y > 0 ? tile - width : -1;
+            default:
+                return y < level.getHeight() - 1 ? tile + width : -1;
+        }
+    }
+
+    /**
+     * This method works out which direction to face when moving between two
+     * adjacent Tiles.
+     *
+     * @param from The index of the Tile moving from.
+     * @param to The index of the Tile moving to.
+     * @return The direction, as a row of the sprite sheet.
+     */
+    private byte getDirection(int from, int to) {
+        if (to == from - 1) {
+            return LEFT;
+        } else if (to == from + 1) {
+            return RIGHT;
+        } else if (to < from) {
+            return UP;
+        }
+        return DOWN;
+    }
+
+    /**
+     * Gets the number of Enemies in the swarm.
+     *
+     * @return The number of Enemies.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the health of an Enemy.
+     *
+     * @param i The index of the Enemy.
+     * @return The health of the Enemy.
+     */
+    public int getHealth(int i) {
+        return healths[i];
+    }
+
+    /**
+     * Gets the x-coordinate of an Enemy in its transition between Tiles.
+     *
+     * @param i The index of the Enemy.
+     * @return The x-coordinate of the top left corner of the Enemy, in pixels.
+     */
+    public int getXPixels(int i) {
+        return xPixels[i];
+    }
+
+    /**
+     * Gets the y-coordinate of an Enemy in its transition between Tiles.
+     *
+     * @param i The index of the Enemy.
+     * @return The y-coordinate of the top left corner of the Enemy, in pixels.
+     */
+    public int getYPixels(int i) {
+        return yPixels[i];
+    }
+
+    /**
+     * Gets the x-coordinate of an Enemy before the last tick.
+     *
+     * @param i The index of the Enemy.
+     * @return The x-coordinate of the top left corner of the Enemy, in pixels.
+     */
+    public int getPreviousXPixels(int i) {
+        return previousX[i];
+    }
+
+    /**
+     * Gets the y-coordinate of an Enemy before the last tick.
+     *
+     * @param i The index of the Enemy.
+     * @return The y-coordinate of the top left corner of the Enemy, in pixels.
+     */
+    public int getPreviousYPixels(int i) {
+        return previousY[i];
+    }
+
+    /**
+     * Gets the radius of the light around an Enemy, which is the same as for
+     * the Enemy objects.
+     *
+     * @return The radius of the light, in pixels.
+     */
+    public int getLightRadius() {
+        return Actor.DEFAULT_LIGHT_RADIUS / 2;
+    }
+
+    /**
+     * Gets the current frame of an Enemy's animation.
+     *
+     * @param i The index of the Enemy.
+     * @return The frame, or null if the Enemy's sprite sheet hasn't been
+     * loaded.
+     */
+    public BufferedImage getCurrentFrame(int i) {
+        int type = types[i];
+        if (atlases[type] == null) {
+            BufferedImage sheet = type == SIMPLE ? SimpleEnemy.simpleEnemyImage : RandomEnemy.randomEnemyImage;
+            if (sheet == null) {
+                return null;
+            }
+            atlases[type] = SpriteAtlas.getAtlas(sheet, NUM_FRAMES[type]);
+        }
+        return atlases[type].getFrame(frame % NUM_FRAMES[type], directions[i]);
+    }
+}
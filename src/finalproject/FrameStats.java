@@ -0,0 +1,135 @@
+package finalproject;
+
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+/**
+ * This class keeps track of how often frames are drawn and how long they take
+ * to draw. It is also used to keep track of the game's ticks, in which case
+ * each tick is treated as a frame. Every second, it works out the number of
+ * frames that were drawn, the average time it took to draw a frame, and the
+ * longest gap between two frames. A steady frame rate has a longest gap close
+ * to 1000 / FPS milliseconds, so the gap shows how much the frames jitter.
+ */
+public class FrameStats {
+
+    /**
+     * The length, in nanoseconds, of the period that the statistics are
+     * measured over.
+     */
+    public static final long PERIOD = 1000000000L;
+    /**
+     * The name of what is being measured, such as "Frames" or "Ticks", which is
+     * drawn before the statistics.
+     */
+    private String name;
+    /**
+     * The time that the current period started, and the time that the last
+     * frame started, in nanoseconds.
+     */
+    private long periodStart, lastFrameStart;
+    /**
+     * The number of frames drawn so far in the current period.
+     */
+    private int frames;
+    /**
+     * The total time spent drawing frames, and the longest gap between the
+     * start of two frames, in the current period, in nanoseconds.
+     */
+    private long drawTime, maxGap;
+    /**
+     * The statistics of the last full period.
+     */
+    private double fps, averageFrameTime, maxFrameGap;
+
+    /**
+     * Create a new FrameStats.
+     *
+     * @param name The name of what is being measured, which is drawn before
+     * the statistics.
+     */
+    public FrameStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * This method records a frame that has been drawn. It should be called
+     * once for every frame.
+     *
+     * @param start The value of System.nanoTime() when the frame started to
+     * be drawn.
+     * @param end The value of System.nanoTime() when the frame finished being
+     * drawn.
+     */
+    public void frameFinished(long start, long end) {
+        if (frames == 0 && periodStart == 0) {
+            periodStart = start;
+        } else {
+            maxGap = Math.max(maxGap, start - lastFrameStart);
+        }
+        lastFrameStart = start;
+        drawTime += end - start;
+        frames++;
+
+        long elapsed = end - periodStart;
+        if (elapsed >= PERIOD) {
+            fps = frames * (double) PERIOD / elapsed;
+            averageFrameTime = drawTime / 1000000.0 / frames;
+            maxFrameGap = maxGap / 1000000.0;
+
+            periodStart = end;
+            frames = 0;
+            drawTime = 0;
+            maxGap = 0;
+        }
+    }
+
+    /**
+     * This method draws the statistics of the last full period.
+     *
+     * @param g The Graphics2D object to draw to.
+     * @param x The x-coordinate of the text.
+     * @param y The y-coordinate of the baseline of the text.
+     */
+    public void draw(Graphics2D g, int x, int y) {
+        String text = String.format("%s: %.1f/s  %.2f ms each  %.1f ms max gap", name,
+                fps, averageFrameTime, maxFrameGap);
+
+        //Draw a shadow so that the text can be read on any background
+        g.setColor(Color.BLACK);
+        g.drawString(text, x + 1, y + 1);
+        g.setColor(Color.WHITE);
+        g.drawString(text, x, y);
+    }
+
+    /**
+     * This method returns the number of frames drawn per second in the last
+     * full period.
+     *
+     * @return The number of frames per second.
+     */
+    public double getFPS() {
+        return fps;
+    }
+
+    /**
+     * This method returns the average time it took to draw a frame in the last
+     * full period.
+     *
+     * @return The average frame time, in milliseconds.
+     */
+    public double getAverageFrameTime() {
+        return averageFrameTime;
+    }
+
+    /**
+     * This method returns the longest gap between the start of two frames in
+     * the last full period.
+     *
+     * @return The longest gap between frames, in milliseconds.
+     */
+    public double getMaxFrameGap() {
+        return maxFrameGap;
+    }
+}
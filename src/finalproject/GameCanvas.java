@@ -0,0 +1,164 @@
+package finalproject;
+
+
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+/**
+ * This class draws the game using active rendering, as an alternative to
+ * having Swing repaint the ContentPanel. Rather than asking for a repaint and
+ * waiting for Swing to get around to it (possibly combining several requests
+ * into one), the GameCanvas has its own thread that draws a frame into a
+ * BufferStrategy and shows it, MainApplet.FPS times per second.
+ *
+ * To use the GameCanvas, set MainApplet.ACTIVE_RENDERING to true.
+ */
+public class GameCanvas extends Canvas implements Runnable {
+
+    /**
+     * The number of buffers in the BufferStrategy.
+     */
+    public static final int NUM_BUFFERS = 2;
+    /**
+     * The ContentPanel that does the drawing.
+     */
+    private ContentPanel content;
+    /**
+     * The thread that draws the frames, or null if it isn't running.
+     */
+    private Thread renderThread;
+    /**
+     * Whether or not the render thread should keep running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Create a GameCanvas that draws the game using the ContentPanel.
+     *
+     * @param content The ContentPanel that does the drawing.
+     */
+    public GameCanvas(ContentPanel content) {
+        this.content = content;
+
+        //The whole Canvas is drawn every frame, so don't let AWT clear it
+        setIgnoreRepaint(true);
+        setFocusable(true);
+    }
+
+    @Override
+    /**
+     * This method is called when the GameCanvas is added to the screen. It
+     * creates the BufferStrategy and starts the render thread.
+     */
+    public void addNotify() {
+        super.addNotify();
+
+        createBufferStrategy(NUM_BUFFERS);
+
+        running = true;
+        renderThread = new Thread(this, "GameCanvas render thread");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    @Override
+    /**
+     * This method is called when the GameCanvas is removed from the screen. It
+     * stops the render thread before the BufferStrategy goes away.
+     */
+    public void removeNotify() {
+        running = false;
+        if (renderThread != null) {
+            try {
+                renderThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            renderThread = null;
+        }
+
+        super.removeNotify();
+    }
+
+    @Override
+    /**
+     * This method is the render thread. It draws a frame, and then waits until
+     * it is time for the next one. The time of each frame is based on when the
+     * first frame was drawn rather than when the last one finished, so the
+     * frames don't drift. If drawing falls more than a frame behind, it starts
+     * again from the current time instead of drawing frames as fast as
+     * possible to catch up.
+     */
+    public void run() {
+        long frameTime = 1000000000L / MainApplet.FPS;
+        long nextFrame = System.nanoTime();
+
+        while (running) {
+            drawFrame();
+
+            nextFrame += frameTime;
+            long sleepTime = nextFrame - System.nanoTime();
+            if (sleepTime > 0) {
+                try {
+                    Thread.sleep(sleepTime / 1000000, (int) (sleepTime % 1000000));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            } else if (sleepTime < -frameTime) {
+                nextFrame = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * This method draws a single frame and shows it on the screen. The
+     * contents of the BufferStrategy can be lost at any time (for example,
+     * when the display mode changes), in which case the frame is drawn again.
+     */
+    private void drawFrame() {
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            return;
+        }
+
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    g.setColor(getBackground());
+                    g.fillRect(0, 0, getWidth(), getHeight());
+                    content.render(g, getWidth(), getHeight());
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        //Make sure the frame is actually sent to the screen now, rather than
+        //being buffered by the windowing system
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    @Override
+    /**
+     * The GameCanvas draws itself, so this does nothing.
+     *
+     * @param g Unused.
+     */
+    public void paint(Graphics g) {
+    }
+
+    @Override
+    /**
+     * The GameCanvas draws itself, so this does nothing.
+     *
+     * @param g Unused.
+     */
+    public void update(Graphics g) {
+    }
+}
@@ -0,0 +1,64 @@
+package finalproject;
+
+
+/**
+ * This class is the clock that all of the game's timing is read from, such as
+ * how long a speed bonus lasts, how often the Player can shoot, and how long
+ * an Enemy waits before retargeting. The time only ever goes forwards, and
+ * starts at 0 when the clock is made.
+ *
+ * The game uses a SystemClock, which follows the real time. A VirtualClock can
+ * be used instead when the game is simulated without a screen, so that time
+ * moves forward by exactly one tick every tick, no matter how quickly the
+ * ticks are done.
+ */
+public abstract class GameClock {
+
+    /**
+     * A time, in milliseconds, that is long before any time the clock will
+     * show. It is used for things that have never happened, so that they are
+     * always long enough ago. It is far enough from Long.MIN_VALUE that
+     * subtracting it from a time doesn't overflow.
+     */
+    public static final long NEVER = Long.MIN_VALUE / 2;
+    /**
+     * The clock that the game is currently using.
+     */
+    private static volatile GameClock clock = new SystemClock();
+
+    /**
+     * Gets the clock that the game is currently using.
+     *
+     * @return The current GameClock.
+     */
+    public static GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the clock that the game uses. This should be done before any
+     * Actors are made, since times from different clocks can't be compared.
+     *
+     * @param newClock The new GameClock.
+     */
+    public static void setClock(GameClock newClock) {
+        clock = newClock;
+    }
+
+    /**
+     * Gets the time on the clock.
+     *
+     * @return The time since the clock was made, in nanoseconds.
+     */
+    public abstract long nanoTime();
+
+    /**
+     * Gets the time on the clock, in milliseconds. This is what the Actors use
+     * in place of System.currentTimeMillis().
+     *
+     * @return The time since the clock was made, in milliseconds.
+     */
+    public long millis() {
+        return nanoTime() / 1000000;
+    }
+}
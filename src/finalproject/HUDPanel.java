@@ -3,7 +3,6 @@ package finalproject;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
 import javax.swing.*;
 
 /**
@@ -49,28 +48,21 @@ public class HUDPanel extends JPanel {
      */
     Level currentLevel;
     /**
-     * A reference to the Player.
+     * The RenderSnapshot of the last tick, which holds the health of the
+     * Player and the Enemies. The HUDPanel draws from this instead of the
+     * Player and the Enemy ArrayList, since those are changed by the update
+     * thread while the HUDPanel is painted.
      */
-    Player player;
-    /**
-     * A reference to the ArrayList of Enemies.
-     */
-    ArrayList<Enemy> enemies;
+    private volatile RenderSnapshot snapshot;
     /**
      * The separate images stored in the sprite sheet of ratingImage.
      */
     BufferedImage fullStar, halfStar, emptyStar;
 
     /**
-     * Create a HUDPanel based on the following parameters.
-     *
-     * @param player A reference to the Player.
-     * @param enemies A reference to the ArrayList of Enemies.
+     * Create a HUDPanel.
      */
-    public HUDPanel(Player player, ArrayList<Enemy> enemies) {
-        this.player = player;
-        this.enemies = enemies;
-
+    public HUDPanel() {
         //There are 3 images within ratingImage, all side by side horizontally
         int width = ratingImage.getWidth() / 3, height = ratingImage.getHeight();
 
@@ -94,11 +86,18 @@ public class HUDPanel extends JPanel {
 
         int x = OFFSET, y = OFFSET;
 
-        drawHealthBar(g2d, x, y, player.getHealth());
+        //Draw the health bars once there has been a tick
+        RenderSnapshot snapshot = this.snapshot;
+        if (snapshot == null) {
+            drawDifficulty(g2d, 25, 25);
+            return;
+        }
+
+        drawHealthBar(g2d, x, y, snapshot.getPlayerHealth());
         x = getWidth() - HEALTH_WIDTH - OFFSET;
 
         //This represents the number of enemy health bars we are going to draw
-        int numDrawEnemy = enemies.size();
+        int numDrawEnemy = snapshot.getNumEnemies();
         //Limit it to the max number of enemies
         if (numDrawEnemy > Level.MAX_ENEMIES) {
             numDrawEnemy = Level.MAX_ENEMIES;
@@ -106,9 +105,8 @@ public class HUDPanel extends JPanel {
 
         //For each health bar
         for (int i = 0; i < numDrawEnemy; i++) {
-            Enemy enemy = enemies.get(i);
             //Draw it
-            drawHealthBar(g2d, x, y, enemy.getHealth());
+            drawHealthBar(g2d, x, y, snapshot.getEnemyHealth(i));
             //Increment y by the height of the health and leave OFFSET between each bar
             y += HEALTH_HEIGHT + OFFSET;
         }
@@ -221,6 +219,16 @@ public class HUDPanel extends JPanel {
         JOptionPane.showMessageDialog(null, instructionsText, "Instructions", JOptionPane.INFORMATION_MESSAGE);
     }
 
+    /**
+     * Sets the RenderSnapshot that the health bars are drawn from. This is
+     * called by the update thread at the end of every tick.
+     *
+     * @param snapshot The RenderSnapshot of the last tick.
+     */
+    public void setSnapshot(RenderSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
     /**
      * Sets the current Level of the HUDPanel.
      *
@@ -0,0 +1,168 @@
+package finalproject;
+
+
+/**
+ * This class is an implementation of Jump Point Search for a Level, where
+ * Actors can only move left, right, up and down. It finds paths of the same
+ * length as PathFinder, but instead of putting every Tile along a straight
+ * corridor on the open list, it "jumps" along the corridor and only stops at
+ * Tiles where the path might need to turn (jump points). On the long empty
+ * runs produced by the map generator, this means far fewer Tiles are expanded.
+ *
+ * To decide where a path might need to turn, only one of the many equally
+ * short paths between two Tiles is considered: the one that turns vertically
+ * as early as possible. A path that is moving vertically can turn left or
+ * right at any Tile, but a path that is moving horizontally only turns up or
+ * down if the Tile diagonally behind it is blocked (a "forced" turn), because
+ * otherwise it could have turned one Tile earlier. Jumping horizontally stops
+ * at forced turns, and jumping vertically stops at any Tile where a horizontal
+ * jump would find something.
+ *
+ * http://harablog.wordpress.com/2011/09/07/jump-point-search/
+ */
+public class JumpPointPathFinder extends PathFinder {
+
+    /**
+     * The directions that a Tile can be reached in. These match the directions
+     * used by PathFinder: 0 is left, 1 is right, 2 is up, 3 is down.
+     */
+    private static final int LEFT = 0, RIGHT = 1, UP = 2, DOWN = 3;
+    /**
+     * The direction that each jump point was reached in during the current
+     * search, indexed by x + y * width.
+     */
+    private byte[] arrivals;
+
+    /**
+     * Create a JumpPointPathFinder for the given Level.
+     *
+     * @param level The Level to find paths in.
+     */
+    public JumpPointPathFinder(Level level) {
+        super(level);
+    }
+
+    @Override
+    /**
+     * This method makes sure that the array of arrival directions exists.
+     *
+     * @param targetIndex The index of the target Tile.
+     */
+    protected void searchStarting(int targetIndex) {
+        if (arrivals == null) {
+            arrivals = new byte[width * height];
+        }
+    }
+
+    @Override
+    /**
+     * This method jumps from the Tile that was just taken off the open list in
+     * each direction that the path might need to go, and puts the jump points
+     * that are found on the open list.
+     *
+     * @param current The index of the Tile that was just taken off the open
+     * list.
+     */
+    protected void expand(int current) {
+        int x = current % width, y = current / width;
+
+        if (parents[current] < 0) {
+            //The starting Tile can go in every direction
+            jumpFrom(current, LEFT);
+            jumpFrom(current, RIGHT);
+            jumpFrom(current, UP);
+            jumpFrom(current, DOWN);
+        } else if (arrivals[current] == LEFT || arrivals[current] == RIGHT) {
+            //Moving horizontally, keep going, and only turn if forced to
+            int dx = arrivals[current] == LEFT ? -1 : 1;
+            jumpFrom(current, arrivals[current]);
+            if (isOpen(x, y - 1) && !isOpen(x - dx, y - 1)) {
+                jumpFrom(current, UP);
+            }
+            if (isOpen(x, y + 1) && !isOpen(x - dx, y + 1)) {
+                jumpFrom(current, DOWN);
+            }
+        } else {
+            //Moving vertically, keep going, or turn either way
+            jumpFrom(current, arrivals[current]);
+            jumpFrom(current, LEFT);
+            jumpFrom(current, RIGHT);
+        }
+    }
+
+    /**
+     * This method jumps from a Tile in the given direction, and puts the jump
+     * point that is found (if any) on the open list.
+     *
+     * @param current The index of the Tile to jump from.
+     * @param direction The direction to jump in.
+     */
+    private void jumpFrom(int current, int direction) {
+        int x = current % width, y = current / width;
+        int next;
+        if (direction == LEFT || direction == RIGHT) {
+            next = jumpHorizontal(x, y, direction == LEFT ? -1 : 1);
+        } else {
+            next = jumpVertical(x, y, direction == UP ? -1 : 1);
+        }
+
+        if (next >= 0) {
+            //The jump point is in a straight line from the current Tile
+            int distance = Math.abs(next % width - x) + Math.abs(next / width - y);
+            if (consider(next, current, gValues[current] + distance)) {
+                arrivals[next] = (byte) direction;
+            }
+        }
+    }
+
+    /**
+     * This method moves horizontally from (x, y) until it finds the target, a
+     * Tile where the path is forced to turn, or a wall.
+     *
+     * @param x The x-coordinate to jump from.
+     * @param y The y-coordinate to jump from.
+     * @param dx The direction to jump in, -1 for left or 1 for right.
+     * @return The index of the jump point, or -1 if a wall was reached first.
+     */
+    private int jumpHorizontal(int x, int y, int dx) {
+        while (true) {
+            x += dx;
+            if (!isOpen(x, y)) {
+                return -1;
+            }
+            if (x == targetX && y == targetY) {
+                return x + y * width;
+            }
+            //Stop if we can turn here but couldn't have turned one Tile earlier
+            if ((isOpen(x, y - 1) && !isOpen(x - dx, y - 1))
+                    || (isOpen(x, y + 1) && !isOpen(x - dx, y + 1))) {
+                return x + y * width;
+            }
+        }
+    }
+
+    /**
+     * This method moves vertically from (x, y) until it finds the target, a
+     * Tile from which a horizontal jump finds a jump point, or a wall.
+     *
+     * @param x The x-coordinate to jump from.
+     * @param y The y-coordinate to jump from.
+     * @param dy The direction to jump in, -1 for up or 1 for down.
+     * @return The index of the jump point, or -1 if a wall was reached first.
+     */
+    private int jumpVertical(int x, int y, int dy) {
+        while (true) {
+            y += dy;
+            if (!isOpen(x, y)) {
+                return -1;
+            }
+            if (x == targetX && y == targetY) {
+                return x + y * width;
+            }
+            //Stop if turning here leads somewhere
+            if (jumpHorizontal(x, y, -1) >= 0 || jumpHorizontal(x, y, 1) >= 0) {
+                return x + y * width;
+            }
+        }
+    }
+}
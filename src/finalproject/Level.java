@@ -1,17 +1,23 @@
 package finalproject;
 
 import java.awt.*;
-import java.awt.geom.Area;
-import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Random;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class represents the Level that the Player, Enemy, Projectile and
  * PowerUp objects must play through. It is responsible for randomly generating
- * a Level, and determining a path from one Tile to another.
+ * a Level, determining a path from one Tile to another, and keeping the flow
+ * field that leads every Enemy to the Player.
  *
  * June 17, 2013
  *
@@ -28,16 +34,60 @@ public class Level {
      * being lit up.
      */
     public static final Color LIGHT_COLOR = new Color(255, 255, 200, 150);
+    /**
+     * This represents the width and height, in pixels, of the cells that keep
+     * track of which parts of the Level have been lit up. It should divide
+     * evenly into the size of a Tile.
+     */
+    public static final int LIGHT_CELL_SIZE = 4;
+    /**
+     * The images used to draw each radius of temporary light, which are only
+     * made once. Each one is a square twice as wide as the radius, holding how
+     * much of each pixel (from 0 to 255) is inside the circle. These are only
+     * used by the paint thread.
+     */
+    private static final HashMap<Integer, byte[]> LIGHT_SPRITES = new HashMap<Integer, byte[]>();
+    /**
+     * The layers of the light chunks. The darkness layer is black where the
+     * Level hasn't been lit up yet and LIGHT_COLOR where it has, and only the
+     * cells that have been lit since the last time it was drawn are updated.
+     * The light layer is a copy of it with the temporary lights cut out of it,
+     * and is the one that is drawn over the Level.
+     */
+    private static final int DARKNESS_LAYER = 0, LIGHT_LAYER = 1;
     /**
      * This represents whether or not the darkness/light of the Level is drawn.
      * This is useful in case you would like to look at the entire Level during
      * debugging.
      */
     public static boolean LIGHT_ENABLED = true;
+    /**
+     * This represents whether getPath() uses Jump Point Search instead of
+     * plain A*. Both find paths of the same length, but Jump Point Search
+     * expands far fewer Tiles on maps with long empty corridors. This is read
+     * when a Level first finds a path, so changing it only affects new Levels.
+     */
+    public static boolean JUMP_POINT_SEARCH = false;
+    /**
+     * This represents whether generateMap() repairs the parts of a map that
+     * were sealed off during generation, rather than throwing the whole map
+     * away and generating it again. Repairing always finishes in a single
+     * pass, while the number of times a map has to be regenerated grows very
+     * quickly with the size and difficulty of the map.
+     */
+    public static boolean REPAIR_MAPS = true;
+    /**
+     * This represents whether addEnemies() puts the Enemies that follow the
+     * flow field (SimpleEnemies and RandomEnemies) in the Level's EnemySwarm
+     * instead of making an object for each of them. The swarm is much faster
+     * with thousands of Enemies, but its Enemies share one animation frame.
+     */
+    public static boolean USE_ENEMY_SWARM = false;
     /**
      * This represents the maximum difficulty a map can have. This value should
-     * not be increased above 4. If it is, the map generation takes a much
-     * longer time to complete.
+     * not be increased above 4. If it is, the maps are mostly walls, and if
+     * REPAIR_MAPS is disabled the map generation takes a much longer time to
+     * complete.
      */
     public static final int MAX_DIFFICULTY = 4;
     /**
@@ -66,9 +116,21 @@ public class Level {
      */
     private MainApplet mainApplet;
     /**
-     * The array of Tiles representing the map.
+     * The states of the Tiles in cells. UNSET Tiles haven't been generated
+     * yet, which only happens while the map is being generated.
+     */
+    private static final byte UNSET = 0, EMPTY = 1, WALL = 2;
+    /**
+     * The map, as the state of every Tile (UNSET, EMPTY or WALL), indexed by
+     * x + y * width. This is one byte per Tile, rather than an object.
+     */
+    private byte[] cells;
+    /**
+     * The Tile objects that have been handed out, indexed by x + y * width.
+     * Each one is made from cells the first time it is asked for (see
+     * getTile()), so the Tiles that nothing ever stands on are never made.
      */
-    private Tile[][] map;
+    private Tile[] tiles;
     /**
      * The width and height of the Level.
      */
@@ -82,43 +144,174 @@ public class Level {
      */
     private ArrayList<PowerUp> powerUps;
     /**
-     * This represents the Area of the map that is permanently lit up.
+     * The PowerUps on each Tile of the Level.
+     */
+    private OccupancyGrid<PowerUp> powerUpGrid;
+    /**
+     * The Projectiles on each Tile of the Level. A Projectile is on both its
+     * position Tile and its target Tile, since it can hit an Enemy on either.
+     * The Projectiles keep this up to date themselves.
+     */
+    private OccupancyGrid<Projectile> projectileGrid;
+    /**
+     * The Enemies in this Level that are stored as arrays rather than objects
+     * (see USE_ENEMY_SWARM).
+     */
+    private EnemySwarm swarm;
+    /**
+     * This represents the part of the map that is permanently lit up. The map
+     * is split into square cells LIGHT_CELL_SIZE pixels wide, and the bit for
+     * each cell (at row * lightColumns + column) is set once its center has
+     * been lit by the Player. Unlike an Area, which gets more complicated every
+     * time a circle is added to it, lighting up part of the map always takes
+     * the same amount of time no matter how long the Level has been played.
+     */
+    private BitSet litCells;
+    /**
+     * The number of columns and rows of cells in litCells.
+     */
+    private int lightColumns, lightRows;
+    /**
+     * The number of cells in litCells that have been lit up. Once every cell
+     * is lit, the Level is complete.
+     */
+    private int litCellCount;
+    /**
+     * This represents the circle of light that is currently lit, and should be
+     * added to the permanently lit cells, as its x, y and radius in pixels. It
+     * is set by the update thread and taken by the Level thread, and is null
+     * when there is no light to add. The whole circle is swapped at once, so
+     * the Level thread never sees the center of one light with the radius of
+     * another.
+     */
+    private final AtomicReference<int[]> currentLight = new AtomicReference<int[]>();
+    /**
+     * The rows and columns of litCells that have been lit since the light
+     * chunks were last brought up to date, or -1 if there are none. These are shared
+     * between the Level thread and the paint thread, so they are only used
+     * while holding the lock on litCells.
+     */
+    private int dirtyFirstRow = -1, dirtyLastRow = -1, dirtyFirstColumn, dirtyLastColumn;
+    /**
+     * This holds the chunks of the darkness that covers the Level, with a
+     * DARKNESS_LAYER and a LIGHT_LAYER. Only the chunks that have been on the
+     * screen recently are kept, so it uses the same amount of memory however
+     * big the Level is. It is only used by the paint thread.
      */
-    private Area permLitArea;
+    private ChunkCache lightChunks;
     /**
-     * This represents the Area of the map that is currently lit, and should be
-     * added to the permanently lit Area.
+     * The temporary lights that are currently cut out of the light layer of
+     * the visible light chunks.
      */
-    private Area currentLightArea;
+    private int[] drawnTempLights;
     /**
-     * This represents the Area of the map that is currently lit but should not
-     * be added to the permanently lit area.
+     * The time, in nanoseconds, that it took to draw the light the last time
+     * drawLight() was called.
      */
-    private Area tempLitArea;
+    private long lightDrawTime;
     /**
      * This represents the Task that is currently running.
      */
     private Task currentTask;
     /**
-     * This is the image that represents the map. It is useful because it is
-     * drawn when the Level is created, and subsequent calls to the paint method
-     * do not need to draw every Tile separately.
+     * This holds the images of the chunks of the map. It is useful because a
+     * chunk is drawn the first time it is on the screen, and subsequent calls
+     * to the paint method do not need to draw every Tile separately. Only the
+     * chunks that have been on the screen recently are kept, so Levels that
+     * are much bigger than the screen do not need an image of the entire map.
      */
-    private BufferedImage mapImage;
+    private ChunkCache mapChunks;
     /**
-     * openList and closedList are required as member variables because
-     * instantiating them on every iteration of getPath() hinders performance by
-     * a substantial amount. By making them member variables, a performance
-     * boost is given, but it introduces the restriction that the getPath()
-     * method can only ever be called by a single thread at any given time. This
-     * is fine though, because all pathfinding is done on the ContentPanel
-     * thread during the game, and it's done on the Level thread during Level
-     * initialization.
+     * The PathFinder used by getPath() on each thread. A PathFinder keeps its
+     * search information in arrays that are re-used between calls, so it can
+     * only be used by one thread at a time. Giving every thread its own lets
+     * the Enemies find paths on several threads at once (see
+     * Simulation.PARALLEL_ENEMIES).
      */
-    private ArrayList<PathTile> openList, closedList;
+    private final ThreadLocal<PathFinder> pathFinders = new ThreadLocal<PathFinder>() {
+        @Override
+        protected PathFinder initialValue() {
+            return JUMP_POINT_SEARCH ? new JumpPointPathFinder(Level.this) : new PathFinder(Level.this);
+        }
+    };
+    /**
+     * The region that each Tile belongs to, indexed by x + y * width. Two
+     * Tiles are in the same region if and only if there is a path between
+     * them. Walls have a region of -1. This is computed once, after the map is
+     * generated.
+     */
+    private int[] regions;
+    /**
+     * The number of Tiles in each region.
+     */
+    private int[] regionSizes;
+    /**
+     * The number of moves from every Tile to distanceRoot, indexed by x + y *
+     * width, or -1 if the Tile cannot reach it. This is used by
+     * getRandomTile(), which is called with the same Tile for every Enemy and
+     * PowerUp, so the search only needs to be done once.
+     */
+    private int[] rootDistances;
+    /**
+     * The Tile that rootDistances was computed for.
+     */
+    private Tile distanceRoot;
+    /**
+     * The flow field is the number of moves from every Tile to flowRoot (the
+     * Player's position), indexed by x + y * width. Tiles that cannot reach
+     * flowRoot have a value of -1. All Enemies share this one field, so moving
+     * towards the Player is just a matter of stepping to an adjacent Tile with
+     * a smaller value, rather than every Enemy doing its own search.
+     */
+    private int[] flowDistances;
+    /**
+     * The Tile that the flow field was last computed for.
+     */
+    private Tile flowRoot;
+    /**
+     * The queue of Tile indices used by the breadth-first searches that build
+     * the flow field and the other distance maps. It is a member variable for
+     * the same reason as the PathFinder.
+     */
+    private int[] distanceQueue;
+    /**
+     * The number of maps that were generated before one was kept, and the
+     * number of sealed off areas that were repaired in the map that was kept.
+     * When REPAIR_MAPS is enabled there is only ever one attempt.
+     */
+    private int generationAttempts, generationRepairs;
+    /**
+     * The time it took to generate the map, in nanoseconds.
+     */
+    private long generationTime;
+    /**
+     * The stack used by makeTile(). Each Tile on the stack has its
+     * coordinates, the adjacent Tiles that were unset at the start of the
+     * current pass as a bit mask (see getUnsetAdjacent()), and the next
+     * direction to look at (or -1 to start a new pass). These are only kept
+     * while the map is being generated, since repairMap() calls makeTile()
+     * many times.
+     */
+    private int[] stackX, stackY, stackUnsetAdjacent, stackDirection;
+    /**
+     * Whether or not each Tile on the makeTile() stack must still force an
+     * empty adjacent Tile.
+     */
+    private boolean[] stackForceOneEmpty;
+    /**
+     * The seed that the Level was made from.
+     */
+    private final long seed;
+    /**
+     * The Random used for every random choice in the Level: generating the
+     * map, placing the Enemies and PowerUps, and seeding the Enemies' own
+     * Randoms. Two Levels made from the same seed with the same parameters
+     * are identical, and so are their Enemies' choices.
+     */
+    private final Random random;
 
     /**
-     * Create a Level based on the parameters below.
+     * Create a Level based on the parameters below, from a random seed.
      *
      * @param width The width of the Level, in Tiles
      * @param height The height of the Level, in Tiles
@@ -126,7 +319,23 @@ public class Level {
      * 1-MAX_DIFFICULTY
      */
     Level(MainApplet mainApplet, int width, int height, double difficulty) {
+        this(mainApplet, width, height, difficulty, new Random().nextLong());
+    }
+
+    /**
+     * Create a Level based on the parameters below.
+     *
+     * @param width The width of the Level, in Tiles
+     * @param height The height of the Level, in Tiles
+     * @param difficulty Difficulty of the level. Can range from
+     * 1-MAX_DIFFICULTY
+     * @param seed The seed that all of the Level's random choices are made
+     * from.
+     */
+    Level(MainApplet mainApplet, int width, int height, double difficulty, long seed) {
         this.mainApplet = mainApplet;
+        this.seed = seed;
+        this.random = new Random(seed);
         this.width = width;
         this.height = height;
 
@@ -138,27 +347,66 @@ public class Level {
         }
         this.difficulty = difficulty;
 
-        //Initialize the PowerUps and the permanent lit area.
+        //Initialize the PowerUps, the occupancy grids and the permanent lit cells.
         powerUps = new ArrayList<PowerUp>();
-        permLitArea = new Area();
+        powerUpGrid = new OccupancyGrid<PowerUp>(width, height);
+        projectileGrid = new OccupancyGrid<Projectile>(width, height);
+        lightColumns = (getWidthPixels() + LIGHT_CELL_SIZE - 1) / LIGHT_CELL_SIZE;
+        lightRows = (getHeightPixels() + LIGHT_CELL_SIZE - 1) / LIGHT_CELL_SIZE;
+        litCells = new BitSet(lightColumns * lightRows);
 
         //Generate the map
         generateMap();
+        //Work out which Tiles can reach each other
+        findRegions();
 
-        //Draw the map image once, so that the paint method does not need to draw every Tile in each iteration.
-        mapImage = new BufferedImage(getWidthPixels(), getHeightPixels(), BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = mapImage.createGraphics();
+        swarm = new EnemySwarm(this);
+    }
 
-        g.setColor(Color.white);
-        g.fillRect(0, 0, getWidthPixels(), getHeightPixels());
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                //Draw the Tile if it exists
-                if (map[x][y] != null) {
-                    map[x][y].draw(g);
+    /**
+     * This method returns the chunks of the map, making them the first time
+     * they are needed. They are made when the Level is first drawn rather than
+     * when it is created, so that Levels which are never displayed (such as
+     * very large ones made for testing) do not need any images.
+     *
+     * @return The chunks of the map.
+     */
+    private ChunkCache getMapChunks() {
+        if (mapChunks == null) {
+            mapChunks = new ChunkCache(getWidthPixels(), getHeightPixels(), BufferedImage.TYPE_INT_RGB, 1) {
+                @Override
+                protected void drawChunk(Chunk chunk) {
+                    drawMapChunk(chunk);
                 }
+            };
+        }
+        return mapChunks;
+    }
+
+    /**
+     * This method draws the Tiles of one chunk of the map.
+     *
+     * @param chunk The chunk to draw.
+     */
+    private void drawMapChunk(ChunkCache.Chunk chunk) {
+        BufferedImage chunkImage = chunk.getImage(0);
+        Graphics2D g = chunkImage.createGraphics();
+        g.translate(-chunk.getX(), -chunk.getY());
+
+        g.setColor(Color.white);
+        g.fillRect(chunk.getX(), chunk.getY(), chunkImage.getWidth(), chunkImage.getHeight());
+        //Only draw the Tiles in the chunk
+        int firstX = chunk.getX() / Tile.WIDTH, firstY = chunk.getY() / Tile.HEIGHT;
+        int lastX = Math.min(width, firstX + ChunkCache.CHUNK_TILES);
+        int lastY = Math.min(height, firstY + ChunkCache.CHUNK_TILES);
+        for (int x = firstX; x < lastX; x++) {
+            for (int y = firstY; y < lastY; y++) {
+                //Draw the image for the Tile, without making a Tile for it
+                BufferedImage image = getCell(x, y) == WALL ? Tile.wallImage : Tile.emptyImage;
+                g.drawImage(image, x * Tile.WIDTH, y * Tile.HEIGHT, null);
             }
         }
+        g.dispose();
     }
 
     /**
@@ -174,19 +422,18 @@ public class Level {
          */
         @Override
         public void run() {
-            //If we have a currentLightArea that we havent worked with
-            if (currentLightArea != null) {
-                Rectangle screen = new Rectangle(getWidthPixels(), getHeightPixels());
-                if (!permLitArea.contains(screen)) {
-                    if (!permLitArea.contains(currentLightArea.getBounds2D())) {
-                        permLitArea.add(currentLightArea);
-
-                        //Get rid of currentLightArea so we don't try to add it next iteration
-                        currentLightArea = null;
+            //If we have a current light that we havent worked with, take it so
+            //we don't try to add it next iteration
+            int[] light = currentLight.getAndSet(null);
+            if (light != null && light[2] > 0) {
+                addLight(light[0], light[1], light[2]);
+
+                if (litCellCount >= lightColumns * lightRows) {
+                    // Win, unless there's no Applet (when the game is simulated
+                    // without a screen)
+                    if (mainApplet != null) {
+                        mainApplet.endLevel(true);
                     }
-                } else {
-                    // Win
-                    mainApplet.endLevel(true);
                     //Save memory by ending this thread now that the screen is lit up
                     cancel();
                 }
@@ -194,6 +441,61 @@ public class Level {
         }
     }
 
+    /**
+     * This method permanently lights up every cell whose center is inside of
+     * the specified circle. It only looks at the cells in the rows that the
+     * circle covers, so it takes the same amount of time however much of the
+     * Level is already lit.
+     *
+     * @param centerX The x-coordinate of the center of the circle, in pixels.
+     * @param centerY The y-coordinate of the center of the circle, in pixels.
+     * @param radius The radius of the circle, in pixels.
+     */
+    private void addLight(int centerX, int centerY, int radius) {
+        int half = LIGHT_CELL_SIZE / 2;
+        int firstRow = Math.max(0, (centerY - radius) / LIGHT_CELL_SIZE);
+        int lastRow = Math.min(lightRows - 1, (centerY + radius) / LIGHT_CELL_SIZE);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            int dy = row * LIGHT_CELL_SIZE + half - centerY;
+            if (dy * dy > radius * radius) {
+                continue;
+            }
+
+            //The cells in this row whose centers are within the circle
+            double dx = Math.sqrt(radius * radius - dy * dy);
+            int firstColumn = Math.max(0, (int) Math.ceil((centerX - dx - half) / LIGHT_CELL_SIZE));
+            int lastColumn = Math.min(lightColumns - 1, (int) Math.floor((centerX + dx - half) / LIGHT_CELL_SIZE));
+
+            int index = row * lightColumns + firstColumn;
+            for (int column = firstColumn; column <= lastColumn; column++, index++) {
+                if (!litCells.get(index)) {
+                    litCells.set(index);
+                    litCellCount++;
+                }
+            }
+        }
+
+        //Let the paint thread know which part of the darkness has changed
+        int firstColumn = Math.max(0, (centerX - radius) / LIGHT_CELL_SIZE);
+        int lastColumn = Math.min(lightColumns - 1, (centerX + radius) / LIGHT_CELL_SIZE);
+        if (firstRow <= lastRow && firstColumn <= lastColumn) {
+            synchronized (litCells) {
+                if (dirtyFirstRow == -1) {
+                    dirtyFirstRow = firstRow;
+                    dirtyLastRow = lastRow;
+                    dirtyFirstColumn = firstColumn;
+                    dirtyLastColumn = lastColumn;
+                } else {
+                    dirtyFirstRow = Math.min(dirtyFirstRow, firstRow);
+                    dirtyLastRow = Math.max(dirtyLastRow, lastRow);
+                    dirtyFirstColumn = Math.min(dirtyFirstColumn, firstColumn);
+                    dirtyLastColumn = Math.max(dirtyLastColumn, lastColumn);
+                }
+            }
+        }
+    }
+
     /**
      * This method is used to start the Level thread, which is responsible for
      * keeping track of what area of the screen is lit up.
@@ -208,7 +510,7 @@ public class Level {
         currentTask = new Task();
         // Make the frequency of the thread LEVEL_THREAD_DELAY_FACTOR times slower
         //than that of the other threads to keep it from being laggy
-        timer.scheduleAtFixedRate(currentTask, 0, LEVEL_THREAD_DELAY_FACTOR * 1000 / MainApplet.FPS);
+        timer.scheduleAtFixedRate(currentTask, 0, LEVEL_THREAD_DELAY_FACTOR * 1000 / MainApplet.TICK_RATE);
     }
 
     /**
@@ -239,7 +541,11 @@ public class Level {
 
             //If we still need to add SimpleEnemies
             if (numSimple > 0) {
-                newEnemy = new SimpleEnemy(t, this, player);
+                if (USE_ENEMY_SWARM) {
+                    swarm.add(EnemySwarm.SIMPLE, t);
+                } else {
+                    newEnemy = new SimpleEnemy(t, this, player);
+                }
                 numSimple--;
             } else if (numSearch > 0) {
                 //If we still need to add SearchEnemies
@@ -247,15 +553,19 @@ public class Level {
                 numSearch--;
             } else if (numRandom > 0) {
                 //If we still need to add RandomEnemies
-                newEnemy = new RandomEnemy(t, this, player);
+                if (USE_ENEMY_SWARM) {
+                    swarm.add(EnemySwarm.RANDOM, t);
+                } else {
+                    newEnemy = new RandomEnemy(t, this, player);
+                }
                 numRandom--;
+            } else {
+                break;
             }
 
             //Add the Enemy
             if (newEnemy != null) {
                 enemies.add(newEnemy);
-            } else {
-                break;
             }
         }
     }
@@ -278,8 +588,8 @@ public class Level {
 
         //If the difficulty is high enough to have extra PowerUps
         if (multiplePowerUps) {
-            numHealth += (int) (Math.random() * 2);
-            numSpeed += (int) (Math.random() * 2);
+            numHealth += random.nextInt(2);
+            numSpeed += random.nextInt(2);
         }
 
         int totalPowerUps = numHealth + numSpeed;
@@ -304,6 +614,7 @@ public class Level {
             //Add the PowerUp
             if (newPowerUp != null) {
                 powerUps.add(newPowerUp);
+                powerUpGrid.add(newPowerUp, t);
             } else {
                 break;
             }
@@ -315,51 +626,183 @@ public class Level {
      * targetPosition is specified, then the chosen Tile is guaranteed to have a
      * path to the targetPosition.
      *
+     * Rather than trying random Tiles until one works, the Tiles that meet the
+     * conditions are counted and one of them is chosen directly, so this takes
+     * the same amount of time no matter how few Tiles would be accepted.
+     *
      * @param targetPosition If this parameter is not null, then the returned
      * Tile is guaranteed to have a path to the this Tile.
      * @param minDistance The minimum distance that the returned Tile must be
      * from the targetPosition. If targetPosition is null, then this parameter
      * has no effect. If set to 0, then the returned Tile has no restriction on
-     * distance from the target.
+     * distance from the target. If no Tile is far enough away, one of the
+     * furthest Tiles that can reach the targetPosition is returned instead.
      * @return A random, non-wall Tile in the level.
      */
     public Tile getRandomTile(Tile targetPosition, int minDistance) {
-        //The tile to be returned
-        Tile t = null;
-
-        //Keep looking for a Tile until we get one that isn't null and isn't a wall
-        while (t == null || t.getIsWall()) {
-            //Choose a random Tile on the map
-            t = getTile((int) (Math.random() * (width - 1)),
-                    (int) (Math.random() * (height - 1)));
-
-            //If we have a position and Tile to guarantee a path to
-            if (targetPosition != null && t != null) {
-                //Attempt the path
-                ArrayList<Tile> path = getPath(null, t, targetPosition);
-
-                //If we didn't get a good enough path
-                if (path == null || path.size() < minDistance) {
-                    //Don't use this Tile
-                    t = null;
+        int numTiles = width * height;
+
+        if (targetPosition == null || minDistance <= 0) {
+            //Any Tile in the right region will do, so no search is needed
+            int region = -1;
+            int count = 0;
+            if (targetPosition != null) {
+                region = regions[getIndex(targetPosition.getX(), targetPosition.getY())];
+                count = region >= 0 ? regionSizes[region] : 0;
+            } else {
+                for (int i = 0; i < regionSizes.length; i++) {
+                    count += regionSizes[i];
+                }
+            }
+
+            //The target is a wall, so the only Tile that "reaches" it is itself
+            if (count == 0) {
+                return targetPosition;
+            }
+
+            //Choose one of the Tiles and find it
+            int choice = random.nextInt(count);
+            for (int i = 0; i < numTiles; i++) {
+                if (regions[i] >= 0 && (region < 0 || regions[i] == region) && choice-- == 0) {
+                    return getTile(i);
+                }
+            }
+        }
+
+        //Find the distance from every Tile to the targetPosition, if we haven't already
+        if (!targetPosition.equals(distanceRoot)) {
+            if (rootDistances == null) {
+                rootDistances = new int[numTiles];
+            }
+            fillDistances(rootDistances, getIndex(targetPosition.getX(), targetPosition.getY()));
+            distanceRoot = targetPosition;
+        }
+
+        //Count the Tiles that are far enough away, and find the furthest Tile in
+        //case none of them are
+        int count = 0, furthest = 0;
+        for (int i = 0; i < numTiles; i++) {
+            if (rootDistances[i] >= minDistance) {
+                count++;
+            }
+            furthest = Math.max(furthest, rootDistances[i]);
+        }
+        int required = count > 0 ? minDistance : furthest;
+        if (count == 0) {
+            for (int i = 0; i < numTiles; i++) {
+                if (rootDistances[i] == furthest) {
+                    count++;
+                }
+            }
+        }
+
+        //Choose one of the Tiles and find it
+        int choice = random.nextInt(count);
+        for (int i = 0; i < numTiles; i++) {
+            if (rootDistances[i] >= required && choice-- == 0) {
+                return getTile(i);
+            }
+        }
+
+        return targetPosition;
+    }
+
+    /**
+     * This method determines whether or not there is a path between two
+     * Tiles. This takes constant time.
+     *
+     * @param a The first Tile.
+     * @param b The second Tile.
+     * @return Whether or not the two Tiles are connected by a path.
+     */
+    public boolean isReachable(Tile a, Tile b) {
+        int regionA = regions[getIndex(a.getX(), a.getY())];
+        return regionA >= 0 && regionA == regions[getIndex(b.getX(), b.getY())];
+    }
+
+    /**
+     * This method labels every non-wall Tile with the region it belongs to, so
+     * that two Tiles can be known to have a path between them without
+     * searching. Each region is found with a flood fill.
+     */
+    private void findRegions() {
+        int numTiles = width * height;
+        regions = new int[numTiles];
+        Arrays.fill(regions, -1);
+
+        if (distanceQueue == null) {
+            distanceQueue = new int[numTiles];
+        }
+        ArrayList<Integer> sizes = new ArrayList<Integer>();
+
+        for (int i = 0; i < numTiles; i++) {
+            //Start a new region at every Tile that isn't in one yet
+            if (regions[i] != -1 || cells[i] == WALL) {
+                continue;
+            }
+
+            int region = sizes.size();
+            int head = 0, tail = 0;
+            regions[i] = region;
+            distanceQueue[tail++] = i;
+
+            //Flood fill outwards, adding every Tile reached to the region
+            while (head < tail) {
+                int index = distanceQueue[head++];
+                int x = index % width, y = index / width;
+
+                //Left, right, up, down
+                if (x > 0 && regions[index - 1] == -1 && cells[index - 1] != WALL) {
+                    regions[index - 1] = region;
+                    distanceQueue[tail++] = index - 1;
+                }
+                if (x < width - 1 && regions[index + 1] == -1 && cells[index + 1] != WALL) {
+                    regions[index + 1] = region;
+                    distanceQueue[tail++] = index + 1;
+                }
+                if (y > 0 && regions[index - width] == -1 && cells[index - width] != WALL) {
+                    regions[index - width] = region;
+                    distanceQueue[tail++] = index - width;
+                }
+                if (y < height - 1 && regions[index + width] == -1 && cells[index + width] != WALL) {
+                    regions[index + width] = region;
+                    distanceQueue[tail++] = index + width;
                 }
             }
+
+            //The number of Tiles that were queued is the size of the region
+            sizes.add(tail);
+        }
+
+        regionSizes = new int[sizes.size()];
+        for (int i = 0; i < regionSizes.length; i++) {
+            regionSizes[i] = sizes.get(i);
         }
-        return t;
     }
 
     /**
      * This function is responsible for starting the generation of the map using
-     * the recursive method makeTile(int, int). It makes as many maps necessary
-     * until it generates a map that meets all of the conditions specified in
-     * mapSatisfactory().
+     * the method makeTile(int, int). If REPAIR_MAPS is enabled, the map is
+     * generated once and any Tiles that fail the conditions specified in
+     * mapSatisfactory() are fixed by repairMap(). Otherwise, it makes as many
+     * maps necessary until it generates a map that meets all of the conditions.
      */
     private void generateMap() {
+        long start = System.nanoTime();
+        generationAttempts = 0;
+        generationRepairs = 0;
+
         do {
-            //Make a new Tile[][]
-            map = new Tile[width][height];
-            //Do the recursive process and start in the top left corner
+            //Start with every Tile ungenerated
+            cells = new byte[width * height];
+            //Do the generation process and start in the top left corner
             makeTile(0, 0);
+            generationAttempts++;
+
+            if (REPAIR_MAPS) {
+                //Fix the map instead of making a new one
+                repairMap();
+            }
 
             //Don't stop until we're happy with the map
         } while (!mapSatisfactory());
@@ -367,356 +810,813 @@ public class Level {
         //When we have a map that we like, fill any Tiles that were missed with
         //non-wall Tiles
         fillEmpty();
+        tiles = new Tile[width * height];
+
+        //The generation stack is no longer needed
+        stackX = stackY = stackUnsetAdjacent = stackDirection = null;
+        stackForceOneEmpty = null;
+
+        generationTime = System.nanoTime() - start;
+    }
+
+    /**
+     * This method repairs the areas that makeTile() sealed off with walls
+     * before it got to them. These are the Tiles that are surrounded only by
+     * unset Tiles, and any other unset Tiles that can't be reached from the top
+     * left corner (fillEmpty() would otherwise turn them into empty Tiles that
+     * the Player can never get to). For each one, the sealed off area is
+     * generated by calling makeTile() from inside of it, and then a corridor is
+     * cut through the walls to join it to the rest of the map.
+     *
+     * Starting makeTile() in an unset area that was connected to the rest of the
+     * map can seal off parts of that area that were already checked, so the
+     * map is checked again until a pass finds nothing to repair.
+     */
+    private void repairMap() {
+        int numTiles = width * height;
+        //Whether or not each Tile can be reached from the top left corner,
+        //treating unset Tiles as empty since that is what fillEmpty() makes them
+        boolean[] connected = new boolean[numTiles];
+        //These are used by connectTile() to find the corridors
+        int[] parents = new int[numTiles];
+        int[] searchIds = new int[numTiles];
+        if (distanceQueue == null) {
+            distanceQueue = new int[numTiles];
+        }
+
+        markConnected(connected, 0);
+
+        boolean repaired;
+        do {
+            repaired = false;
+            for (int i = 0; i < numTiles; i++) {
+                int x = i % width;
+                int y = i / width;
+                boolean sealedOff = getCell(x, y) == UNSET && !connected[i];
+                if (!sealedOff && !isSurroundedByUnset(x, y)) {
+                    continue;
+                }
+
+                //Start generating from the Tile itself, or from one of its
+                //neighbours if the Tile is a wall. A Tile has at least two
+                //neighbours, so it always has one to the left or the right.
+                if (getCell(x, y) != UNSET) {
+                    x += x > 0 ? -1 : 1;
+                }
+                //makeTile() may put walls anywhere in the unset area that it
+                //starts in, so that area can't be counted as connected anymore
+                clearConnected(connected, getIndex(x, y));
+                makeTile(x, y);
+                connectTile(getIndex(x, y), connected, parents, searchIds, generationRepairs + 1);
+
+                generationRepairs++;
+                repaired = true;
+            }
+        } while (repaired);
+    }
+
+    /**
+     * This method joins the Tile at the specified index to the part of the map
+     * that is connected to the top left corner. It does a breadth-first search
+     * that is allowed to go through walls, and makes every wall and unset Tile
+     * along the shortest corridor that it finds into an empty Tile.
+     *
+     * @param index The index of the Tile to connect.
+     * @param connected Whether each Tile is connected to the top left corner.
+     * This is updated to include the newly connected Tiles.
+     * @param parents The Tile that each Tile was reached from during the
+     * search.
+     * @param searchIds The search that each Tile was last reached in, so that
+     * parents does not need to be cleared between searches.
+     * @param searchId The id of this search.
+     */
+    private void connectTile(int index, boolean[] connected, int[] parents, int[] searchIds,
+            int searchId) {
+        int head = 0, tail = 0;
+        distanceQueue[tail++] = index;
+        searchIds[index] = searchId;
+        parents[index] = -1;
+
+        while (head < tail) {
+            int current = distanceQueue[head++];
+
+            int x = current % width;
+            int y = current / width;
+            //Only stop at empty Tiles, since a connected unset Tile could still
+            //be made into a wall by a later repair
+            if (connected[current] && getCell(x, y) == EMPTY) {
+                //Cut the corridor back to the Tile we started at
+                for (int i = current; i != -1; i = parents[i]) {
+                    int corridorX = i % width;
+                    int corridorY = i / width;
+                    if (getCell(corridorX, corridorY) != EMPTY) {
+                        setCell(corridorX, corridorY, EMPTY);
+                    }
+                }
+                break;
+            }
+
+            for (int direction = 0; direction < 4; direction++) {
+                //0 is left, 1 is right, 2 is up, 3 is down
+                int nextX = x + (direction == 0 ? -1 : direction == 1 ? 1 : 0);
+                int nextY = y + (direction == 2 ? -1 : direction == 3 ? 1 : 0);
+                if (nextX < 0 || nextY < 0 || nextX >= width || nextY >= height) {
+                    continue;
+                }
+
+                int next = getIndex(nextX, nextY);
+                if (searchIds[next] != searchId) {
+                    searchIds[next] = searchId;
+                    parents[next] = current;
+                    distanceQueue[tail++] = next;
+                }
+            }
+        }
+
+        markConnected(connected, index);
+    }
+
+    /**
+     * This method un-marks every unset Tile that can be reached from the Tile
+     * at the specified index by only going through unset Tiles.
+     *
+     * @param connected Whether each Tile is connected to the top left corner.
+     * @param index The index of the unset Tile to start at.
+     */
+    private void clearConnected(boolean[] connected, int index) {
+        if (!connected[index]) {
+            return;
+        }
+
+        int head = 0, tail = 0;
+        distanceQueue[tail++] = index;
+        connected[index] = false;
+
+        while (head < tail) {
+            int current = distanceQueue[head++];
+            int x = current % width;
+            int y = current / width;
+
+            for (int direction = 0; direction < 4; direction++) {
+                int nextX = x + (direction == 0 ? -1 : direction == 1 ? 1 : 0);
+                int nextY = y + (direction == 2 ? -1 : direction == 3 ? 1 : 0);
+                if (nextX < 0 || nextY < 0 || nextX >= width || nextY >= height
+                        || getCell(nextX, nextY) != UNSET) {
+                    continue;
+                }
+
+                int next = getIndex(nextX, nextY);
+                if (connected[next]) {
+                    connected[next] = false;
+                    distanceQueue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method marks every Tile that can be reached from the Tile at the
+     * specified index as connected. Null Tiles are treated as empty Tiles.
+     *
+     * @param connected Whether each Tile is connected to the top left corner.
+     * @param index The index of the Tile to start at.
+     */
+    private void markConnected(boolean[] connected, int index) {
+        if (connected[index]) {
+            return;
+        }
+
+        int head = 0, tail = 0;
+        distanceQueue[tail++] = index;
+        connected[index] = true;
+
+        while (head < tail) {
+            int current = distanceQueue[head++];
+            int x = current % width;
+            int y = current / width;
+
+            for (int direction = 0; direction < 4; direction++) {
+                int nextX = x + (direction == 0 ? -1 : direction == 1 ? 1 : 0);
+                int nextY = y + (direction == 2 ? -1 : direction == 3 ? 1 : 0);
+                if (nextX < 0 || nextY < 0 || nextX >= width || nextY >= height
+                        || getCell(nextX, nextY) == WALL) {
+                    continue;
+                }
+
+                int next = getIndex(nextX, nextY);
+                if (!connected[next]) {
+                    connected[next] = true;
+                    distanceQueue[tail++] = next;
+                }
+            }
+        }
     }
 
     /**
-     * This is a recursive method that is responsible for generating a random
-     * map based on the difficulty specified by the member variable difficulty.
-     * The starting position of this algorithm must be at (0, 0).
+     * This method is responsible for generating a random map based on the
+     * difficulty specified by the member variable difficulty. The starting
+     * position of this algorithm must be at (0, 0).
+     *
+     * The algorithm was originally written recursively: each new empty Tile
+     * randomly chose some of its adjacent Tiles to also be empty, generated
+     * each of them in turn, and then made the rest of its adjacent Tiles into
+     * walls. That limited the size of the map to the depth of the thread's
+     * stack, so the recursion is now done with an explicit stack of "frames",
+     * one for each Tile that is in the middle of being generated. The frames
+     * are processed in exactly the same order as the recursive calls were, so
+     * the same maps are produced.
      *
      * @param x The x-coordinate to start the generation at.
      * @param y The y-coordinate to start the generation at.
      */
     private void makeTile(int x, int y) {
-        if (x < 0 || y < 0 || x >= width || y >= height || map[x][y] != null) {
-            return;
+        //Each Tile can only be pushed once (it stops being unset), so the stack
+        //never needs to be bigger than the map
+        if (stackX == null) {
+            int numTiles = width * height;
+            stackX = new int[numTiles];
+            stackY = new int[numTiles];
+            stackUnsetAdjacent = new int[numTiles];
+            stackDirection = new int[numTiles];
+            stackForceOneEmpty = new boolean[numTiles];
         }
+        int stackSize = 0;
 
-        // Make the current tile empty
-        map[x][y] = new Tile(x, y, false);
+        stackSize = pushTile(x, y, stackSize);
 
-        /**
-         * Pre-calculate the different coordinates of left, right, up, and down
-         * Tiles
-         */
-        int left = x - 1;
-        int right = x + 1;
-        int up = y - 1;
-        int down = y + 1;
+        while (stackSize > 0) {
+            int top = stackSize - 1;
+            x = stackX[top];
+            y = stackY[top];
 
-        //Assume that we must force an empty adjacent Tile
-        boolean forceOneEmpty = true;
-
-        //While we need one Tile to be empty
-        while (forceOneEmpty) {
-            boolean[] nullAdjacent = getNullAdjacent(x, y);
-
-            // Dont enforce at least one being chosen if there is already an
-            // adjacent empty tile
-            //Determine if the Tile in each direction has already been created and is a wall
-            boolean tileEmptyLeft = left > 0 && !nullAdjacent[0]
-                    && !map[left][y].getIsWall();
-            boolean tileEmptyRight = right < width && !nullAdjacent[1]
-                    && !map[right][y].getIsWall();
-            boolean tileEmptyUp = up > 0 && !nullAdjacent[2]
-                    && !map[x][up].getIsWall();
-            boolean tileEmptyDown = down < height && !nullAdjacent[3]
-                    && !map[x][down].getIsWall();
-
-            //If there is an empty Tile in any direction, then we dont need to force an empty Tile
-            forceOneEmpty = !(tileEmptyLeft || tileEmptyRight || tileEmptyUp
-                    || tileEmptyDown);
-
-            //If all Tiles around this one are already created
-            if (!nullAdjacent[0] && !nullAdjacent[1] && !nullAdjacent[2]
-                    && !nullAdjacent[3]) {
-                // Base case
-                // No more to create
-                break;
+            if (stackDirection[top] < 0) {
+                //Start a new pass, as long as we need one Tile to be empty
+                if (!stackForceOneEmpty[top]) {
+                    finishTile(x, y);
+                    stackSize--;
+                    continue;
+                }
+
+                int unsetAdjacent = getUnsetAdjacent(x, y);
+
+                // Dont enforce at least one being chosen if there is already an
+                // adjacent empty tile
+                //Determine if the Tile in each direction has already been created and is a wall
+                boolean tileEmptyLeft = x - 1 > 0 && (unsetAdjacent & 1) == 0
+                        && getCell(x - 1, y) != WALL;
+                boolean tileEmptyRight = x + 1 < width && (unsetAdjacent & 2) == 0
+                        && getCell(x + 1, y) != WALL;
+                boolean tileEmptyUp = y - 1 > 0 && (unsetAdjacent & 4) == 0
+                        && getCell(x, y - 1) != WALL;
+                boolean tileEmptyDown = y + 1 < height && (unsetAdjacent & 8) == 0
+                        && getCell(x, y + 1) != WALL;
+
+                //If there is an empty Tile in any direction, then we dont need to force an empty Tile
+                stackForceOneEmpty[top] = !(tileEmptyLeft || tileEmptyRight || tileEmptyUp
+                        || tileEmptyDown);
+
+                //If all Tiles around this one are already created
+                if (unsetAdjacent == 0) {
+                    // Base case
+                    // No more to create
+                    finishTile(x, y);
+                    stackSize--;
+                    continue;
+                }
+
+                stackUnsetAdjacent[top] = unsetAdjacent;
+                stackDirection[top] = 0;
+            }
+
+            //Once all four directions have been looked at, start another pass
+            if (stackDirection[top] == 4) {
+                stackDirection[top] = -1;
+                continue;
             }
 
-            //For each null Tile surrounding the current one
-            for (int i = 0; i < nullAdjacent.length; i++) {
-                if (nullAdjacent[i]) {
-                    //The probability of a Tile being empty is based on the difficulty.
-                    //The higher the difficulty, the less chance of empty Tile
-                    boolean isEmpty = Math.random() * 10 < 10 - difficulty;
+            //For each unset Tile surrounding the current one
+            int i = stackDirection[top]++;
+            if ((stackUnsetAdjacent[top] & (1 << i)) != 0) {
+                //The probability of a Tile being empty is based on the difficulty.
+                //The higher the difficulty, the less chance of empty Tile
+                boolean isEmpty = random.nextDouble() * 10 < 10 - difficulty;
 
+                //Make an empty Tile in the correct direction
+                if (isEmpty) {
                     //If we've created an empty Tile, then we no longer need to force an empty one
-                    forceOneEmpty = isEmpty ? false : forceOneEmpty;
-
-                    //Make an empty Tile in the correct direction
-                    if (isEmpty) {
-                        //0 is left, 1 is right, 2 is up, 3 is down
-                        switch (i) {
-                            case 0:
-                                makeTile(left, y);
-                                break;
-                            case 1:
-                                makeTile(right, y);
-                                break;
-                            case 2:
-                                makeTile(x, up);
-                                break;
-                            case 3:
-                                makeTile(x, down);
-                                break;
-                        }
-                    }
+                    stackForceOneEmpty[top] = false;
+
+                    //0 is left, 1 is right, 2 is up, 3 is down
+                    int nextX = x + (i == 0 ? -1 : i == 1 ? 1 : 0);
+                    int nextY = y + (i == 2 ? -1 : i == 3 ? 1 : 0);
+                    stackSize = pushTile(nextX, nextY, stackSize);
                 }
             }
         }
+    }
+
+    /**
+     * This method makes the Tile at (x, y) empty and pushes it onto the stack
+     * used by makeTile(), so that its adjacent Tiles are generated next. If
+     * (x, y) is off the map or has already been generated, nothing happens.
+     *
+     * @param x The x-coordinate of the Tile.
+     * @param y The y-coordinate of the Tile.
+     * @param stackSize The current size of the stack.
+     * @return The new size of the stack.
+     */
+    private int pushTile(int x, int y, int stackSize) {
+        if (x < 0 || y < 0 || x >= width || y >= height || getCell(x, y) != UNSET) {
+            return stackSize;
+        }
+
+        // Make the current tile empty
+        setCell(x, y, EMPTY);
+
+        stackX[stackSize] = x;
+        stackY[stackSize] = y;
+        stackDirection[stackSize] = -1;
+        //Assume that we must force an empty adjacent Tile
+        stackForceOneEmpty[stackSize] = true;
+        return stackSize + 1;
+    }
 
-        //For all null Tiles that we decided aren't empty Tiles
-        boolean[] emptyAdjacent = getNullAdjacent(x, y);
+    /**
+     * This method is called once makeTile() has finished generating around a
+     * Tile. All of the adjacent Tiles that we decided aren't empty Tiles are
+     * made into walls.
+     *
+     * @param x The x-coordinate of the Tile.
+     * @param y The y-coordinate of the Tile.
+     */
+    private void finishTile(int x, int y) {
+        //For all unset Tiles that we decided aren't empty Tiles
+        int emptyAdjacent = getUnsetAdjacent(x, y);
 
         //Make them wall Tiles
-        if (emptyAdjacent[0]) {
-            map[left][y] = new Tile(left, y, true);
+        if ((emptyAdjacent & 1) != 0) {
+            setCell(x - 1, y, WALL);
         }
-        if (emptyAdjacent[1]) {
-            map[right][y] = new Tile(right, y, true);
+        if ((emptyAdjacent & 2) != 0) {
+            setCell(x + 1, y, WALL);
         }
-        if (emptyAdjacent[2]) {
-            map[x][up] = new Tile(x, up, true);
+        if ((emptyAdjacent & 4) != 0) {
+            setCell(x, y - 1, WALL);
         }
-        if (emptyAdjacent[3]) {
-            map[x][down] = new Tile(x, down, true);
+        if ((emptyAdjacent & 8) != 0) {
+            setCell(x, y + 1, WALL);
         }
     }
 
     /**
-     * This method is responsible for getting all of the adjacent null Tiles to
+     * This method is responsible for getting all of the adjacent unset Tiles to
      * a Tile.
      *
      * @param x The x-coordinate of the Tile to check the adjacent Tiles.
      * @param y The y-coordinate of the Tile to check the adjacent Tiles.
-     * @return A boolean[] holding whether each adjacent Tile to the specified
-     * Tile is null or not. The order of directions is left, right, up, down.
+     * @return A bit mask holding whether each adjacent Tile to the specified
+     * Tile is unset or not. Bit 0 is left, bit 1 is right, bit 2 is up and bit
+     * 3 is down.
      */
-    private boolean[] getNullAdjacent(int x, int y) {
+    private int getUnsetAdjacent(int x, int y) {
         int left = x - 1;
         int right = x + 1;
         int up = y - 1;
         int down = y + 1;
 
-        boolean[] ret = new boolean[4];
+        int ret = 0;
 
-        ret[0] = left > 0 && map[left][y] == null;
-        ret[1] = right < width && map[right][y] == null;
-        ret[2] = up > 0 && map[x][up] == null;
-        ret[3] = down < height && map[x][down] == null;
+        if (left > 0 && getCell(left, y) == UNSET) {
+            ret |= 1;
+        }
+        if (right < width && getCell(right, y) == UNSET) {
+            ret |= 2;
+        }
+        if (up > 0 && getCell(x, up) == UNSET) {
+            ret |= 4;
+        }
+        if (down < height && getCell(x, down) == UNSET) {
+            ret |= 8;
+        }
 
         return ret;
     }
 
     /**
      * This method checks the generated map to ensure that there are no spaces
-     * in the map that are surrounded by all null Tiles. By rejecting the maps
+     * in the map that are surrounded by all unset Tiles. By rejecting the maps
      * that don't meet this criteria, and running the generation algorithm over
      * again, the problem is eliminated.
      *
      * @return Whether or not this map is satisfactory, meaning that no Tiles
-     * are surrounded only by null Tiles
+     * are surrounded only by unset Tiles
      */
     private boolean mapSatisfactory() {
         //For each Tile in the map
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
-                Tile[] adjacent = getAdjacent(x, y);
-
-                //Determine if all adjacent Tiles are null.
-                boolean allNull = true;
-                for (int i = 0; i < adjacent.length; i++) {
-                    if (adjacent[i] != null) {
-                        allNull = false;
-                    }
-                }
-
-                //If all of the adjacent Tile are null
-                if (allNull) {
-                    // It would be possible to just call makeTile() again to fix
-                    // this mistake, but the original call to makeTile() ensures
-                    // that the initial coordinates can go anywhere on the map
-                    // that is not sealed off
-                    // makeTile(x, y);
-                    return false;
+                //If all of the adjacent Tiles are unset
+                if (isSurroundedByUnset(x, y)) {
+                    // repairMap() fixes this mistake by calling makeTile()
+                    // again from inside the sealed off area when REPAIR_MAPS
+                    // is enabled
+                    return false;
                 }
             }
         }
 
-        //The map was successfully checked and there were no Tiles with 4 adjacent null Tiles
+        //The map was successfully checked and there were no Tiles with 4 adjacent unset Tiles
         return true;
     }
 
     /**
-     * This method goes through the generated map and creates new empty Tiles
-     * where the generation algorithm left nulls.
+     * This method determines whether all of the Tiles adjacent to the Tile at
+     * (x, y) are unset.
+     *
+     * @param x The x-coordinate of the Tile.
+     * @param y The y-coordinate of the Tile.
+     * @return Whether or not all of the adjacent Tiles are unset.
+     */
+    private boolean isSurroundedByUnset(int x, int y) {
+        return (x <= 0 || getCell(x - 1, y) == UNSET)
+                && (x >= width - 1 || getCell(x + 1, y) == UNSET)
+                && (y <= 0 || getCell(x, y - 1) == UNSET)
+                && (y >= height - 1 || getCell(x, y + 1) == UNSET);
+    }
+
+    /**
+     * This method goes through the generated map and makes empty Tiles
+     * where the generation algorithm left unset Tiles.
      */
     private void fillEmpty() {
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
-                if (map[x][y] == null) {
-                    map[x][y] = new Tile(x, y, false);
+                if (getCell(x, y) == UNSET) {
+                    setCell(x, y, EMPTY);
                 }
             }
         }
     }
 
     /**
-     * This function draws the Level to the Graphics2D component
+     * This function draws the Level to the Graphics2D component. Only the
+     * chunks of the map that are inside the Graphics2D's clip are drawn.
      *
      * @param g The Graphics2D object representing the area to draw to
      */
     public void draw(Graphics2D g) {
-        if (mapImage != null) {
-            g.drawImage(mapImage, 0, 0, null);
+        Rectangle area = getVisibleArea(g);
+        for (ChunkCache.Chunk chunk : getMapChunks().getVisibleChunks(area.x, area.y, area.width, area.height)) {
+            g.drawImage(chunk.getImage(0), chunk.getX(), chunk.getY(), null);
         }
     }
 
     /**
-     * This function covers the level in darkness and subtracts the area of the
-     * map that has been permanently uncovered (by the Player), and the part of
-     * the map that has been temporarily uncovered (by the Enemy).
+     * This method works out which part of the Level is visible when drawing to
+     * a Graphics2D object, which is the part inside of its clip.
+     *
+     * @param g The Graphics2D object being drawn to.
+     * @return The visible part of the Level, in pixels. This may be empty.
+     */
+    private Rectangle getVisibleArea(Graphics2D g) {
+        Rectangle area = new Rectangle(0, 0, getWidthPixels(), getHeightPixels());
+        Rectangle clip = g.getClipBounds();
+        return clip == null ? area : area.intersection(clip);
+    }
+
+    /**
+     * This method draws the chunks of the map if they haven't been drawn yet,
+     * so that the first call to draw() doesn't have to. The LevelGenerator
+     * calls this while the Level is being made in the background. This is only
+     * done when the whole map fits in the ChunkCache, since otherwise the
+     * chunks that are drawn would just be thrown away again.
+     */
+    public void prepareMapImage() {
+        ChunkCache chunks = getMapChunks();
+        if (chunks.getTotalChunks() <= ChunkCache.MAX_CHUNKS) {
+            chunks.getVisibleChunks(0, 0, getWidthPixels(), getHeightPixels());
+        }
+    }
+
+    /**
+     * This function covers the level in darkness except for the cells of the
+     * map that have been permanently uncovered (by the Player), and the parts
+     * of the map that are temporarily uncovered (by the Enemy).
+     *
+     * The darkness is kept in chunks (see lightChunks), and only the chunks
+     * inside the Graphics2D's clip are drawn. The darkness layer of a chunk
+     * only changes where new light has been added. The light layer is a copy
+     * of it with the temporary lights cut out, and each frame only the squares
+     * around last frame's lights are copied back before this frame's lights
+     * are cut out. This way the time this takes depends only on the size of
+     * the screen and the number of lights, and not on the size of the Level or
+     * the shape of the area that has been lit.
      *
      * @param g The Graphics2D object representing the area to draw to
+     * @param lights The circles of light that are temporarily lit up, and
+     * don't add to the permanently lit cells, as the x, y and radius of each
+     * circle in pixels. Circles with a radius of 0 are ignored. The array
+     * should not be changed after it is passed to this method.
      */
-    public void drawLight(Graphics2D g) {
-        /**
-         * http://stackoverflow.com/questions/10852959/java-how-to-draw-a-
-         * transparent-shape-using-a-graphics-object-g
-         */
+    public void drawLight(Graphics2D g, int[] lights) {
         if (LIGHT_ENABLED) {
-            //An Area object the size of the entire Level
-            //This represents the darkness
-            Area fillArea = new Area(new Rectangle2D.Float(0, 0, getWidthPixels(), getHeightPixels()));
-
-            //Determine the permanent lit area + temp lit area
-            Area totalLitArea = new Area();
-            if (permLitArea != null) {
-                totalLitArea.add(permLitArea);
+            long start = System.nanoTime();
+
+            if (lightChunks == null) {
+                lightChunks = new ChunkCache(getWidthPixels(), getHeightPixels(), BufferedImage.TYPE_INT_ARGB, 2) {
+                    @Override
+                    protected void drawChunk(Chunk chunk) {
+                        drawLightChunk(chunk);
+                    }
+                };
             }
-            if (tempLitArea != null) {
-                totalLitArea.add(tempLitArea);
+
+            //Put the darkness back where the lights were last time. They were
+            //only cut out of the chunks that were visible last time, which are
+            //all still kept.
+            if (drawnTempLights != null) {
+                for (int i = 0; i + 2 < drawnTempLights.length; i += 3) {
+                    if (drawnTempLights[i + 2] > 0) {
+                        restoreDarkness(drawnTempLights[i], drawnTempLights[i + 1], drawnTempLights[i + 2]);
+                    }
+                }
             }
 
-            //Subtract the area that has been lit
-            fillArea.subtract(totalLitArea);
+            updateDarknessImages();
 
-            //Fill the darkness black
-            g.setColor(Color.BLACK);
-            g.fill(fillArea);
+            Rectangle area = getVisibleArea(g);
+            ArrayList<ChunkCache.Chunk> visibleChunks = lightChunks.getVisibleChunks(area.x, area.y,
+                    area.width, area.height);
 
-            //Fill the light with the LIGHT_COLOR (has alpha component)
-            g.setColor(LIGHT_COLOR);
-            g.fill(totalLitArea);
+            //Cut this frame's lights out of the darkness
+            if (lights != null) {
+                for (int i = 0; i + 2 < lights.length; i += 3) {
+                    if (lights[i + 2] > 0) {
+                        drawTempLight(lights[i], lights[i + 1], lights[i + 2]);
+                    }
+                }
+            }
+            drawnTempLights = lights;
+
+            for (ChunkCache.Chunk chunk : visibleChunks) {
+                g.drawImage(chunk.getImage(LIGHT_LAYER), chunk.getX(), chunk.getY(), null);
+            }
+
+            lightDrawTime = System.nanoTime() - start;
         }
     }
 
     /**
-     * The PathTile class is an object used in the pathfinding algorithm.
+     * This method draws a chunk of the darkness that has just come onto the
+     * screen, from all of the lit cells inside of it.
+     *
+     * @param chunk The chunk to draw.
      */
-    class PathTile {
+    private void drawLightChunk(ChunkCache.Chunk chunk) {
+        for (int layer : new int[]{DARKNESS_LAYER, LIGHT_LAYER}) {
+            BufferedImage image = chunk.getImage(layer);
+            Graphics2D imageGraphics = image.createGraphics();
+            imageGraphics.setColor(Color.BLACK);
+            imageGraphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            imageGraphics.dispose();
+        }
+        drawLitCells(chunk, 0, lightRows - 1, 0, lightColumns - 1);
+    }
 
-        /**
-         * The parent of this PathTile. This is used when the actual path is
-         * being created.
-         */
-        private PathTile parent;
-        /**
-         * The Tile that this PathTile represents.
-         */
-        private Tile current;
-        /**
-         * The f-value represents the sum of how many steps it will take to get
-         * to this PathTile and the heuristic value, which represents how far
-         * away this Tile is from the target. Essentially, the entire algorithm
-         * is choosing Tiles that have the smallest f-values.
-         */
-        private int f;
-        /**
-         * This represents the number of moves required to get from the starting
-         * Tile to this PathTile.
-         */
-        private int g;
+    /**
+     * This method brings the light chunks that are kept up to date with the
+     * cells that have been lit since they were last drawn. Cells never go
+     * back to being dark, so only the lit cells in the changed rows and
+     * columns need to be drawn. Chunks that aren't kept are drawn from all of
+     * the lit cells when they come back onto the screen.
+     */
+    private void updateDarknessImages() {
+        int firstRow, lastRow, firstColumn, lastColumn;
 
-        /**
-         * Create a PathTile based on the following parameters.
-         *
-         * @param parent The parent PathTile to this one. Can be null or a
-         * PathTile.
-         * @param current The Tile that this PathTile represents. Cannot be
-         * null.
-         * @param h The heuristic value for this Tile, which is an estimation of
-         * how far away from the target this Tile is.
-         */
-        public PathTile(PathTile parent, Tile current, int h) {
-            this.parent = parent;
-            this.current = current;
-            // Add 1 because making a new PathTile represents a move
-            // horizontally or vertically
-            if (parent != null) {
-                //Add one to the parent's g-value
-                g = this.parent.getG() + 1;
-            } else {
-                //If there is no parent, then the g value is 0
-                g = 0;
+        synchronized (litCells) {
+            if (dirtyFirstRow == -1) {
+                return;
             }
+            firstRow = dirtyFirstRow;
+            lastRow = dirtyLastRow;
+            firstColumn = dirtyFirstColumn;
+            lastColumn = dirtyLastColumn;
+            dirtyFirstRow = -1;
+        }
 
-            //f is the sum of h and g
-            f = h + g;
+        for (ChunkCache.Chunk chunk : lightChunks.getChunks()) {
+            drawLitCells(chunk, firstRow, lastRow, firstColumn, lastColumn);
         }
+    }
 
-        /**
-         * Gets the parent PathTile of this PathTile.
-         *
-         * @return The parent PathTile of this PathTile.
-         */
-        public PathTile getParent() {
-            return parent;
+    /**
+     * This method draws the lit cells in some of the rows and columns of
+     * litCells onto both layers of a light chunk. The cells outside of the
+     * chunk are skipped.
+     *
+     * @param chunk The light chunk to draw to.
+     * @param firstRow The first row of cells to draw.
+     * @param lastRow The last row of cells to draw.
+     * @param firstColumn The first column of cells to draw.
+     * @param lastColumn The last column of cells to draw.
+     */
+    private void drawLitCells(ChunkCache.Chunk chunk, int firstRow, int lastRow, int firstColumn, int lastColumn) {
+        int chunkRow = chunk.getY() / LIGHT_CELL_SIZE, chunkColumn = chunk.getX() / LIGHT_CELL_SIZE;
+        firstRow = Math.max(firstRow, chunkRow);
+        lastRow = Math.min(lastRow, chunkRow + lightChunks.getChunkHeight() / LIGHT_CELL_SIZE - 1);
+        firstColumn = Math.max(firstColumn, chunkColumn);
+        lastColumn = Math.min(lastColumn, chunkColumn + lightChunks.getChunkWidth() / LIGHT_CELL_SIZE - 1);
+        if (firstRow > lastRow || firstColumn > lastColumn) {
+            return;
         }
 
-        /**
-         * Gets the Tile that this PathTile represents.
-         *
-         * @return The Tile that this PathTile represents.
-         */
-        public Tile getCurrent() {
-            return current;
+        Graphics2D darknessGraphics = chunk.getImage(DARKNESS_LAYER).createGraphics();
+        Graphics2D lightGraphics = chunk.getImage(LIGHT_LAYER).createGraphics();
+        //Replace the darkness rather than drawing on top of it, using the
+        //same coordinates as the Level
+        for (Graphics2D g : new Graphics2D[]{darknessGraphics, lightGraphics}) {
+            g.setComposite(AlphaComposite.Src);
+            g.setColor(LIGHT_COLOR);
+            g.translate(-chunk.getX(), -chunk.getY());
         }
 
-        /**
-         * Get the f-value of the PathTile.
-         *
-         * @return The f-value of the PathTile.
-         */
-        public int getF() {
-            return f;
+        //Draw the light one run of lit cells at a time
+        for (int row = firstRow; row <= lastRow; row++) {
+            int index = row * lightColumns;
+            int end = index + lastColumn + 1;
+            int runStart = litCells.nextSetBit(index + firstColumn);
+            while (runStart != -1 && runStart < end) {
+                int runEnd = Math.min(end, litCells.nextClearBit(runStart));
+                int x = (runStart - index) * LIGHT_CELL_SIZE, y = row * LIGHT_CELL_SIZE;
+                int runWidth = (runEnd - runStart) * LIGHT_CELL_SIZE;
+                darknessGraphics.fillRect(x, y, runWidth, LIGHT_CELL_SIZE);
+                lightGraphics.fillRect(x, y, runWidth, LIGHT_CELL_SIZE);
+
+                runStart = litCells.nextSetBit(runEnd);
+            }
         }
 
-        /**
-         * Get the g-value of the PathTile.
-         *
-         * @return The g-value of the PathTile.
-         */
-        public int getG() {
-            return g;
+        darknessGraphics.dispose();
+        lightGraphics.dispose();
+    }
+
+    /**
+     * This method puts the darkness back in the square around a temporary
+     * light, by copying the darkness layer onto the light layer of each
+     * visible light chunk that the square covers.
+     *
+     * @param centerX The x-coordinate of the center of the light, in pixels.
+     * @param centerY The y-coordinate of the center of the light, in pixels.
+     * @param radius The radius of the light, in pixels.
+     */
+    private void restoreDarkness(int centerX, int centerY, int radius) {
+        int left = centerX - radius, top = centerY - radius, size = radius * 2;
+        int chunkWidth = lightChunks.getChunkWidth(), chunkHeight = lightChunks.getChunkHeight();
+
+        for (int row = lightChunks.getRow(top); row <= lightChunks.getRow(top + size - 1); row++) {
+            for (int column = lightChunks.getColumn(left); column <= lightChunks.getColumn(left + size - 1); column++) {
+                ChunkCache.Chunk chunk = lightChunks.getVisibleChunk(column, row);
+                if (chunk == null) {
+                    continue;
+                }
+
+                int[] darkness = getPixels(chunk, DARKNESS_LAYER), light = getPixels(chunk, LIGHT_LAYER);
+                int firstX = Math.max(0, left - chunk.getX()), lastX = Math.min(chunkWidth, left + size - chunk.getX());
+                int firstY = Math.max(0, top - chunk.getY()), lastY = Math.min(chunkHeight, top + size - chunk.getY());
+                for (int y = firstY; y < lastY; y++) {
+                    System.arraycopy(darkness, y * chunkWidth + firstX, light, y * chunkWidth + firstX, lastX - firstX);
+                }
+            }
         }
+    }
 
-        /**
-         * Override the equals(Object o) of the Object class so that an
-         * ArrayList of PathTile can call contains() and compare only the Tile
-         * within the PathTile.
-         *
-         * @param o The PathTile to compare this PathTile to.
-         * @return Whether or not the Tile within this PathTile is equal to the
-         * Tile in the passed PathTile. If a PathTile is not given as the
-         * parameter, it returns false.
-         */
-        public boolean equals(Object o) {
-            if (o instanceof PathTile) {
-                PathTile pt = (PathTile) o;
-                return current.equals(pt.getCurrent());
+    /**
+     * This method cuts a circle of light out of the light layer of each
+     * visible light chunk that it covers (see drawTempLight(Chunk, int, int,
+     * int)).
+     *
+     * @param centerX The x-coordinate of the center of the light, in pixels.
+     * @param centerY The y-coordinate of the center of the light, in pixels.
+     * @param radius The radius of the light, in pixels.
+     */
+    private void drawTempLight(int centerX, int centerY, int radius) {
+        int left = centerX - radius, top = centerY - radius, size = radius * 2;
+
+        for (int row = lightChunks.getRow(top); row <= lightChunks.getRow(top + size - 1); row++) {
+            for (int column = lightChunks.getColumn(left); column <= lightChunks.getColumn(left + size - 1); column++) {
+                ChunkCache.Chunk chunk = lightChunks.getVisibleChunk(column, row);
+                if (chunk != null) {
+                    drawTempLight(chunk, centerX - chunk.getX(), centerY - chunk.getY(), radius);
+                }
             }
+        }
+    }
+
+    /**
+     * This method cuts a circle of light out of the light layer of a chunk by
+     * blending each pixel towards the LIGHT_COLOR by how much of it is covered
+     * by the circle. Since the pixels end up the same colour as the lit parts
+     * of the darkness, lights that overlap each other or the lit area look the
+     * same as a single light.
+     *
+     * @param chunk The light chunk to draw to.
+     * @param centerX The x-coordinate of the center of the light, in pixels
+     * from the left of the chunk.
+     * @param centerY The y-coordinate of the center of the light, in pixels
+     * from the top of the chunk.
+     * @param radius The radius of the light, in pixels.
+     */
+    private void drawTempLight(ChunkCache.Chunk chunk, int centerX, int centerY, int radius) {
+        int[] pixels = getPixels(chunk, LIGHT_LAYER);
+        byte[] sprite = getLightSprite(radius);
+        int size = radius * 2;
+        int imageWidth = lightChunks.getChunkWidth(), imageHeight = lightChunks.getChunkHeight();
+        int left = centerX - radius, top = centerY - radius;
+        int light = LIGHT_COLOR.getRGB();
+
+        //Only look at the part of the sprite that is on the image
+        int firstX = Math.max(0, -left), lastX = Math.min(size, imageWidth - left);
+        int firstY = Math.max(0, -top), lastY = Math.min(size, imageHeight - top);
+
+        for (int y = firstY; y < lastY; y++) {
+            int spriteIndex = y * size + firstX;
+            int index = (top + y) * imageWidth + left + firstX;
+            for (int x = firstX; x < lastX; x++, spriteIndex++, index++) {
+                int coverage = sprite[spriteIndex] & 0xff;
+                if (coverage == 255) {
+                    pixels[index] = light;
+                } else if (coverage > 0) {
+                    pixels[index] = blend(pixels[index], light, coverage);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method returns the pixels of one layer of a light chunk.
+     *
+     * @param chunk The light chunk.
+     * @param layer The layer.
+     * @return The ARGB pixels, one row after another.
+     */
+    private static int[] getPixels(ChunkCache.Chunk chunk, int layer) {
+        return ((DataBufferInt) chunk.getImage(layer).getRaster().getDataBuffer()).getData();
+    }
 
-            return false;
+    /**
+     * This method blends two ARGB colours together.
+     *
+     * @param from The colour when the amount is 0.
+     * @param to The colour when the amount is 255.
+     * @param amount How far to blend from one colour to the other, from 0 to
+     * 255.
+     * @return The blended colour.
+     */
+    private static int blend(int from, int to, int amount) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int a = (from >>> shift) & 0xff;
+            int b = (to >>> shift) & 0xff;
+            result |= ((a * (255 - amount) + b * amount) / 255) << shift;
         }
+        return result;
     }
 
     /**
-     * This is an implementation of an A* path finding algorithm.
+     * This method returns the image used to draw a temporary light with the
+     * specified radius, making it the first time it is needed.
      *
-     * http://www.policyalmanac.org/games/aStarTutorial.htm
+     * @param radius The radius of the light, in pixels.
+     * @return The image of the light (see LIGHT_SPRITES).
+     */
+    private static byte[] getLightSprite(int radius) {
+        byte[] sprite = LIGHT_SPRITES.get(radius);
+        if (sprite == null) {
+            int size = radius * 2;
+            sprite = new byte[size * size];
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    //The distance from the center of the pixel to the center
+                    //of the circle. Pixels on the edge are partly covered, which
+                    //makes the light circles look non-pixelated.
+                    double dx = x + 0.5 - radius, dy = y + 0.5 - radius;
+                    double coverage = radius - Math.sqrt(dx * dx + dy * dy) + 0.5;
+                    coverage = Math.max(0, Math.min(1, coverage));
+                    sprite[y * size + x] = (byte) Math.round(coverage * 255);
+                }
+            }
+            LIGHT_SPRITES.put(radius, sprite);
+        }
+        return sprite;
+    }
+
+    /**
+     * This is an implementation of an A* path finding algorithm. The search
+     * itself is done by a PathFinder, which re-uses its arrays between
+     * searches, so re-using the path does not create any garbage once the
+     * Level is warmed up. If JUMP_POINT_SEARCH is enabled, a
+     * JumpPointPathFinder is used instead. This may be called by several
+     * threads at once, since each thread has its own PathFinder.
      *
      * @param path A reference to the ArrayList representing the path. If null,
      * a new ArrayList is returned.
@@ -726,128 +1626,178 @@ public class Level {
      * the target. The first Tile in the path is at the end of the ArrayList.
      */
     public ArrayList<Tile> getPath(ArrayList<Tile> path, Tile start, Tile target) {
-        //Make a new path if it's null, re-use the old one if it's not
-        if (path == null) {
-            path = new ArrayList<Tile>();
-        } else {
-            path.clear();
-        }
-        //If the current Tile is the same as the target Tile, then there is no path
-        if (start.equals(target)) {
-            return path;
-        }
+        return pathFinders.get().getPath(path, start, target);
+    }
 
-        //The only way having one openList/closedList is if only one thread ever
-        //calls this method at one time, which is true.
-        if (openList == null) {
-            //If openList is not initialized, initialize it.
-            openList = new ArrayList<PathTile>();
-        } else {
-            //Otherwise, just clear it
-            openList.clear();
-        }
+    /**
+     * This method returns the index of the Tile at (x, y) in arrays that store
+     * one element per Tile in the Level.
+     *
+     * @param x The x-coordinate of the Tile.
+     * @param y The y-coordinate of the Tile.
+     * @return The index of the Tile, x + y * width.
+     */
+    private int getIndex(int x, int y) {
+        return x + y * width;
+    }
 
-        if (closedList == null) {
-            //If closedList is not initialized, initialize it.
-            closedList = new ArrayList<PathTile>();
-        } else {
-            //Otherwise, just clear it
-            closedList.clear();
+    /**
+     * This method makes sure that the flow field is rooted at the given Tile.
+     * The field is only rebuilt when the root has changed since the last call,
+     * so it is cheap to call this every update, and it only costs a single
+     * breadth-first search of the Level no matter how many Enemies use it.
+     *
+     * @param root The Tile that the flow field should lead to (normally the
+     * position of the Player).
+     */
+    public void updateFlowField(Tile root) {
+        //Nothing to do if the field already leads to this Tile
+        if (root == null || root.equals(flowRoot)) {
+            return;
         }
 
-        // Note that although these lists are of PathTiles, contains(Tile) can
-        // be used because the definition for a PathTile == Tile is defined in
-        // Tile's equals(Object o) method
-
-        boolean targetFound = false;
+        if (flowDistances == null) {
+            flowDistances = new int[width * height];
+        }
+        fillDistances(flowDistances, getIndex(root.getX(), root.getY()));
 
-        //Create a PathTile to represent the first Tile
-        PathTile curTile = new PathTile(null, start, 0);
+        flowRoot = root;
+    }
 
-        //While the target has not been found
-        while (!targetFound) {
-            //Find the PathTile with the smallest f-value in the openList
-            PathTile minF = null;
-            for (PathTile pathTile : openList) {
-                if (minF == null || pathTile.getF() <= minF.getF()) {
-                    minF = pathTile;
-                }
+    /**
+     * This method does a breadth-first search outwards from a Tile, and
+     * records the number of moves from every Tile to it.
+     *
+     * @param distances The array to fill, indexed by x + y * width. Tiles that
+     * cannot reach the root are set to -1.
+     * @param rootIndex The index of the Tile to search from.
+     * @return The number of Tiles that can reach the root, including itself.
+     */
+    private int fillDistances(int[] distances, int rootIndex) {
+        if (distanceQueue == null) {
+            distanceQueue = new int[width * height];
+        }
+        //Every Tile is unreachable until the search finds it
+        Arrays.fill(distances, -1);
+
+        int head = 0, tail = 0;
+        distances[rootIndex] = 0;
+        distanceQueue[tail++] = rootIndex;
+
+        //Breadth-first search outwards from the root
+        while (head < tail) {
+            int index = distanceQueue[head++];
+            int x = index % width, y = index / width;
+            int distance = distances[index] + 1;
+
+            //Left, right, up, down
+            if (x > 0 && distances[index - 1] == -1 && cells[index - 1] != WALL) {
+                distances[index - 1] = distance;
+                distanceQueue[tail++] = index - 1;
             }
-
-            //Add the smallest f-value PathTile to the closedList
-            if (minF != null) {
-                openList.remove(minF);
-                closedList.add(minF);
-                curTile = minF;
-
-                //Check if this PathTile is the target. If it is, we can stop looking.
-                if (curTile.getCurrent().equals(target)) {
-                    targetFound = true;
-                }
+            if (x < width - 1 && distances[index + 1] == -1 && cells[index + 1] != WALL) {
+                distances[index + 1] = distance;
+                distanceQueue[tail++] = index + 1;
             }
+            if (y > 0 && distances[index - width] == -1 && cells[index - width] != WALL) {
+                distances[index - width] = distance;
+                distanceQueue[tail++] = index - width;
+            }
+            if (y < height - 1 && distances[index + width] == -1 && cells[index + width] != WALL) {
+                distances[index + width] = distance;
+                distanceQueue[tail++] = index + width;
+            }
+        }
 
-            //Get the adjacent Tiles
-            Tile[] adjacent = getAdjacent(curTile.getCurrent());
-
-            for (Tile t : adjacent) {
-                //If it's not a wall and the closedList doesn't have the Tile
-                if (!t.getIsWall() && !closedList.contains(t)) {
-                    //Create a new PathTile with the currentTile as the parent, and with a simple heuristic calculation.
-
-                    //This heuristic calculation is called the Manhattan method because it estimates based on the sum of
-                    //the number of horizontal and vertical Tiles to the target.
+        return tail;
+    }
 
-                    int h = Math.abs(target.getX() - t.getX())
-                            + Math.abs(target.getY() - t.getY());
+    /**
+     * This method returns the next Tile to move to in order to follow the flow
+     * field from the given Tile towards its root. This takes constant time.
+     *
+     * @param from The Tile to move from.
+     * @return An adjacent Tile that is one move closer to the root of the flow
+     * field, or null if from is the root, cannot reach the root, or if the
+     * flow field has not been computed.
+     */
+    public Tile getFlowStep(Tile from) {
+        if (from == null) {
+            return null;
+        }
 
-                    PathTile child = new PathTile(curTile, t, h);
+        int step = getFlowStep(getIndex(from.getX(), from.getY()));
+        return step < 0 ? null : getTile(step);
+    }
 
-                    //If its not on the openList, add it
-                    if (!openList.contains(t)) {
-                        openList.add(child);
-                    } else {
-                        //If it's already in the openList, find it
-                        int identicalIndex = openList.indexOf(t);
-                        PathTile identical = openList.get(identicalIndex);
+    /**
+     * This method is the same as getFlowStep(Tile), but works with the index
+     * (x + y * width) of each Tile, so that no Tiles need to be looked up.
+     *
+     * @param index The index of the Tile to move from.
+     * @return The index of an adjacent Tile that is one move closer to the
+     * root of the flow field, or -1 if there is none.
+     */
+    public int getFlowStep(int index) {
+        if (flowDistances == null) {
+            return -1;
+        }
 
-                        //Get the Tile from the identical PathTile
-                        Tile identicalTile = identical.getCurrent();
+        int x = index % width, y = index / width;
+        int distance = flowDistances[index];
 
-                        //Since this Tile is identical to the one previously created, the h-values are equal
-                        if (curTile.getG() < identical.getG()) {
-                            //If this PathTile is a better way to get to the identical PathTile, replace it
-                            openList.set(identicalIndex, child);
-                        }
-                    }
-                }
-            }
+        //Already at the root, or the root can't be reached
+        if (distance <= 0) {
+            return -1;
+        }
 
-            // If weve exhausted all of the tiles that can be reached from the
-            // starting tile,
-            // but still havent found the target
-            if (openList.isEmpty() && !closedList.contains(target)) {
-                path = null;
-                // Then the target is unreachable
-                return null;
-            }
+        //Find the adjacent Tile that is one move closer to the root
+        if (x > 0 && flowDistances[index - 1] == distance - 1) {
+            return index - 1;
+        }
+        if (x < width - 1 && flowDistances[index + 1] == distance - 1) {
+            return index + 1;
+        }
+        if (y > 0 && flowDistances[index - width] == distance - 1) {
+            return index - width;
+        }
+        if (y < height - 1 && flowDistances[index + width] == distance - 1) {
+            return index + width;
         }
 
-        // The first Tile in the path is the last element in the ArrayList
-        if (closedList.size() > 0) {
-            PathTile childTile = closedList.get(closedList.size() - 1);
+        return -1;
+    }
 
-            //Create the path from the closedList
-            do {
-                //Start at the target and follow the parent Tiles all the way back to the start
-                path.add(childTile.getCurrent());
-                childTile = childTile.getParent();
+    /**
+     * This method follows the flow field from the given Tile all the way to
+     * its root, and stores the result in the same format as getPath(). This
+     * takes time proportional to the length of the path, as no searching is
+     * required.
+     *
+     * @param path A reference to the ArrayList representing the path. If null,
+     * a new ArrayList is returned.
+     * @param start The starting Tile.
+     * @return An ArrayList of Tiles that represents a path from the start to
+     * the root of the flow field. The first Tile in the path is at the end of
+     * the ArrayList. If the root cannot be reached, the path is empty.
+     */
+    public ArrayList<Tile> getFlowPath(ArrayList<Tile> path, Tile start) {
+        //Make a new path if it's null, re-use the old one if it's not
+        if (path == null) {
+            path = new ArrayList<Tile>();
+        } else {
+            path.clear();
+        }
 
-                //The very first PathTile that we added had a null parent, so add until we find it
-            } while (childTile != null);
+        //Follow the field from the start to the root
+        Tile step = getFlowStep(start);
+        while (step != null) {
+            path.add(step);
+            step = getFlowStep(step);
         }
 
-        //Remove the starting Tile, if it's in the path
-        path.remove(start);
+        //The first Tile in the path must be at the end of the ArrayList
+        Collections.reverse(path);
 
         return path;
     }
@@ -881,17 +1831,6 @@ public class Level {
         return false;
     }
 
-    /**
-     * This method is responsible for returning a Tile array of all adjacent
-     * Tiles to the specified Tile.
-     *
-     * @param x The x-coordinate of the Tile whose adjacent Tiles are going to
-     * be found.
-     * @param y The y-coordinate of the Tile whose adjacent Tiles are going to
-     * be found.
-     * @return An array of Tiles containing the adjacent Tiles to the specified
-     * Tile.
-     */
     /**
      * This method is responsible for returning a Tile array of all adjacent
      * Tiles to the specified Tile.
@@ -906,21 +1845,21 @@ public class Level {
             return null;
         }
 
-        return getAdjacent(t.getX(), t.getY());
+        return getAdjacent(getIndex(t.getX(), t.getY()));
     }
 
     /**
      * This method is responsible for returning a Tile array of all adjacent
-     * Tiles to the Tile specified by the coordinates x and y.
+     * Tiles to the Tile at the specified index.
      *
-     * @param x The x-coordinate of the Tile whose adjacent Tiles are going to
-     * be found.
-     * @param y The y-coordinate of the Tile whose adjacent Tiles are going to
-     * be found.
+     * @param index The index (x + y * width) of the Tile whose adjacent Tiles
+     * are going to be found.
      * @return An array of Tiles containing the adjacent Tiles to the specified
      * Tile.
      */
-    private Tile[] getAdjacent(int x, int y) {
+    private Tile[] getAdjacent(int index) {
+        int x = index % width, y = index / width;
+
         //The default number of adjacent Tiles
         int numAdjacent = 4;
         //If the current Tile is at the left or right side, there is one less adjacent Tile
@@ -939,19 +1878,19 @@ public class Level {
 
         // Left
         if (x > 0) {
-            ret[i++] = map[x - 1][y];
+            ret[i++] = getTile(index - 1);
         }
         // Right
         if (x < width - 1) {
-            ret[i++] = map[x + 1][y];
+            ret[i++] = getTile(index + 1);
         }
         // Up
         if (y > 0) {
-            ret[i++] = map[x][y - 1];
+            ret[i++] = getTile(index - width);
         }
         // Down
         if (y < height - 1) {
-            ret[i++] = map[x][y + 1];
+            ret[i++] = getTile(index + width);
         }
 
         return ret;
@@ -964,33 +1903,13 @@ public class Level {
      * @return The Tile to the left of the specified Tile.
      */
     public Tile getLeft(Tile t) {
-        //Tile must not be null
-        if (t == null) {
-            return null;
-        }
-
-        return getLeft(t.getX(), t.getY());
-    }
-
-    /**
-     * This method returns the Tile that is to the left of the Tile at the
-     * specified coordinates.
-     *
-     * @param x The x-position of the Tile that should be to the right of the
-     * returned Tile.
-     * @param y The y-position of the Tile that should be to the right of the
-     * returned Tile.
-     * @return The Tile to the left of the Tile at the specified coordinates.
-     */
-    private Tile getLeft(int x, int y) {
-        //If its off the screen, or on the screen but at the very left
-        if (x <= 0 || y < 0 || x >= width || y >= height) {
-            //There is no Tile to the left of this one
+        //Tile must not be null, and there is nothing to the left of the very left
+        if (!contains(t) || t.getX() <= 0) {
             return null;
         }
 
         //Return the Tile to the left of this one
-        return map[x - 1][y];
+        return getTile(getIndex(t.getX(), t.getY()) - 1);
     }
 
     /**
@@ -1000,33 +1919,13 @@ public class Level {
      * @return The Tile to the right of the specified Tile.
      */
     public Tile getRight(Tile t) {
-        //Tile must not be null
-        if (t == null) {
-            return null;
-        }
-
-        return getRight(t.getX(), t.getY());
-    }
-
-    /**
-     * This method returns the Tile that is to the right of the Tile at the
-     * specified coordinates.
-     *
-     * @param x The x-position of the Tile that should be to the left of the
-     * returned Tile.
-     * @param y The y-position of the Tile that should be to the left of the
-     * returned Tile.
-     * @return The Tile to the right of the Tile at the specified coordinates.
-     */
-    private Tile getRight(int x, int y) {
-        //If its off the screen, or on the screen but at the very right
-        if (x < 0 || y < 0 || x >= width - 1 || y >= height) {
-            //There is no Tile to the right of this one
+        //Tile must not be null, and there is nothing to the right of the very right
+        if (!contains(t) || t.getX() >= width - 1) {
             return null;
         }
 
         //Return the Tile to the right of this one
-        return map[x + 1][y];
+        return getTile(getIndex(t.getX(), t.getY()) + 1);
     }
 
     /**
@@ -1036,33 +1935,13 @@ public class Level {
      * @return The Tile above the specified Tile.
      */
     public Tile getUp(Tile t) {
-        //Tile must not be null
-        if (t == null) {
-            return null;
-        }
-
-        return getUp(t.getX(), t.getY());
-    }
-
-    /**
-     * This method returns the Tile that is above the Tile at the specified
-     * coordinates.
-     *
-     * @param x The x-position of the Tile that should be below the returned
-     * Tile.
-     * @param y The y-position of the Tile that should be below the returned
-     * Tile.
-     * @return The Tile above the Tile at the specified coordinates.
-     */
-    private Tile getUp(int x, int y) {
-        //If its off the screen, or on the screen but at the very top
-        if (x < 0 || y <= 0 || x >= width || y >= height) {
-            //There is no Tile above this one
+        //Tile must not be null, and there is nothing above the very top
+        if (!contains(t) || t.getY() <= 0) {
             return null;
         }
 
         //Return the Tile above this one
-        return map[x][y - 1];
+        return getTile(getIndex(t.getX(), t.getY()) - width);
     }
 
     /**
@@ -1072,33 +1951,23 @@ public class Level {
      * @return The Tile below the specified Tile.
      */
     public Tile getDown(Tile t) {
-        //Tile must not be null
-        if (t == null) {
+        //Tile must not be null, and there is nothing below the very bottom
+        if (!contains(t) || t.getY() >= height - 1) {
             return null;
         }
 
-        return getDown(t.getX(), t.getY());
+        //Return the Tile below this one
+        return getTile(getIndex(t.getX(), t.getY()) + width);
     }
 
     /**
-     * This method returns the Tile that is below the Tile at the specified
-     * coordinates.
+     * This method determines whether a Tile is inside of the Level.
      *
-     * @param x The x-position of the Tile that should be above the returned
-     * Tile.
-     * @param y The y-position of the Tile that should be above the returned
-     * Tile.
-     * @return The Tile below the Tile at the specified coordinates.
+     * @param t The Tile.
+     * @return Whether or not the Tile is not null and is inside of the Level.
      */
-    private Tile getDown(int x, int y) {
-        //If its off the screen, or on the screen but at the very bottom
-        if (x < 0 || y < 0 || x >= width || y >= height - 1) {
-            //There is no Tile below this one
-            return null;
-        }
-
-        //Return the Tile below this one
-        return map[x][y + 1];
+    private boolean contains(Tile t) {
+        return t != null && t.getX() >= 0 && t.getY() >= 0 && t.getX() < width && t.getY() < height;
     }
 
     /**
@@ -1107,10 +1976,68 @@ public class Level {
      *
      * @param x The x-coordinate of the desired Tile.
      * @param y The y-coordinate of the desired Tile.
-     * @return A reference to the desired Tile.
+     * @return A reference to the desired Tile, or null if (x, y) is outside of
+     * the Level.
      */
     public Tile getTile(int x, int y) {
-        return map[x][y];
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return null;
+        }
+        return getTile(getIndex(x, y));
+    }
+
+    /**
+     * This method returns the Tile at the specified index. Tiles are only made
+     * the first time they are asked for, since most of them never are. Two
+     * threads asking for the same Tile for the first time at once may both
+     * make it, but a Tile never changes once it's made and Tiles are compared
+     * with equals(), so either one will do.
+     *
+     * @param index The index (x + y * width) of the Tile.
+     * @return The Tile.
+     */
+    private Tile getTile(int index) {
+        Tile tile = tiles[index];
+        if (tile == null) {
+            tile = new Tile(index % width, index / width, cells[index] == WALL);
+            tiles[index] = tile;
+        }
+        return tile;
+    }
+
+    /**
+     * This method determines whether the Tile at the specified index is a
+     * wall, without making a Tile for it.
+     *
+     * @param index The index (x + y * width) of the Tile.
+     * @return Whether or not the Tile is a wall.
+     */
+    public boolean isWall(int index) {
+        return cells[index] == WALL;
+    }
+
+    /**
+     * This method returns the state of the Tile at (x, y) while the map is
+     * being generated.
+     *
+     * @param x The x-coordinate of the Tile.
+     * @param y The y-coordinate of the Tile.
+     * @return UNSET, EMPTY or WALL.
+     */
+    private byte getCell(int x, int y) {
+        return cells[x + y * width];
+    }
+
+    /**
+     * This method sets the state of the Tile at (x, y) while the map is being
+     * generated.
+     *
+     * @param x The x-coordinate of the Tile.
+     * @param y The y-coordinate of the Tile.
+     * @param state UNSET, EMPTY or WALL.
+     */
+    private void setCell(int x, int y, byte state) {
+        cells[x + y * width] = state;
     }
 
     /**
@@ -1131,6 +2058,35 @@ public class Level {
         return height;
     }
 
+    /**
+     * This method returns the number of maps that were generated before one
+     * was kept.
+     *
+     * @return The number of maps that were generated for this Level.
+     */
+    public int getGenerationAttempts() {
+        return generationAttempts;
+    }
+
+    /**
+     * This method returns the number of sealed off areas that were repaired
+     * in the map that was kept.
+     *
+     * @return The number of repairs made to the map.
+     */
+    public int getGenerationRepairs() {
+        return generationRepairs;
+    }
+
+    /**
+     * This method returns how long it took to generate the map.
+     *
+     * @return The time it took to generate the map, in nanoseconds.
+     */
+    public long getGenerationTime() {
+        return generationTime;
+    }
+
     /**
      * This method returns the width of the Level in pixels.
      *
@@ -1168,23 +2124,120 @@ public class Level {
     }
 
     /**
-     * This method sets the value of currentLightArea, which is used in the
-     * Level thread (see Task class above) to add up currentLightArea over time.
+     * This method returns the PowerUps on a Tile.
+     *
+     * @param t The Tile.
+     * @return The PowerUps on the Tile, or null if there are none. The
+     * ArrayList must not be changed; use removePowerUp() instead.
+     */
+    public ArrayList<PowerUp> getPowerUpsAt(Tile t) {
+        return powerUpGrid.get(t);
+    }
+
+    /**
+     * This method removes a PowerUp from the Level.
+     *
+     * @param powerUp The PowerUp to remove.
+     */
+    public void removePowerUp(PowerUp powerUp) {
+        powerUps.remove(powerUp);
+        powerUpGrid.remove(powerUp, powerUp.getPosition());
+    }
+
+    /**
+     * This method returns the grid of the Projectiles on each Tile. The
+     * Projectiles add and remove themselves as they move.
+     *
+     * @return The OccupancyGrid of Projectiles.
+     */
+    public OccupancyGrid<Projectile> getProjectileGrid() {
+        return projectileGrid;
+    }
+
+    /**
+     * This method returns the Level's EnemySwarm, which holds the Enemies that
+     * are stored as arrays rather than objects.
+     *
+     * @return The EnemySwarm.
+     */
+    public EnemySwarm getSwarm() {
+        return swarm;
+    }
+
+    /**
+     * Gets the seed that the Level was made from.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * This method returns a new seed from the Level's Random, for anything in
+     * the Level that makes its own random choices (the Enemies and the
+     * EnemySwarm). Those are made in the same order every time, so they get
+     * the same seeds every time.
+     *
+     * @return The new seed.
+     */
+    public long nextSeed() {
+        return random.nextLong();
+    }
+
+    /**
+     * This method sets the circle of light that is currently lit, which is used
+     * in the Level thread (see Task class above) to light up the map over
+     * time.
+     *
+     * @param x The x-coordinate of the center of the light, in pixels.
+     * @param y The y-coordinate of the center of the light, in pixels.
+     * @param radius The radius of the light, in pixels.
+     */
+    public void setCurrentLight(int x, int y, int radius) {
+        currentLight.set(new int[]{x, y, radius});
+    }
+
+    /**
+     * This method returns how much of the Level has been permanently lit up.
+     *
+     * @return The fraction of the Level that is lit, from 0 to 1.
+     */
+    public double getLitFraction() {
+        return (double) litCellCount / (lightColumns * lightRows);
+    }
+
+    /**
+     * This method returns how long it took to draw the light the last time
+     * drawLight() was called. This is useful for measuring how much of each
+     * frame is spent drawing the light.
+     *
+     * @return The time it took to draw the light, in nanoseconds.
+     */
+    public long getLightDrawTime() {
+        return lightDrawTime;
+    }
+
+    /**
+     * This method returns the number of chunks of the map and of the darkness
+     * that have been drawn. Chunks that are thrown away and come back onto the
+     * screen are counted again.
      *
-     * @param currentLightArea
+     * @return The number of chunks drawn.
      */
-    public void setCurrentLightArea(Area currentLightArea) {
-        this.currentLightArea = currentLightArea;
+    public int getChunksDrawn() {
+        return (mapChunks == null ? 0 : mapChunks.getDrawnCount())
+                + (lightChunks == null ? 0 : lightChunks.getDrawnCount());
     }
 
     /**
-     * This method sets the area that is currently lit up, but doesn't add to
-     * litArea. This area is therefore only temporarily lit up.
+     * This method returns the number of bytes used by the images of the
+     * chunks of the map and of the darkness that are kept.
      *
-     * @param tempLitArea The Area object representing the area that is
-     * temporarily lit
+     * @return The number of bytes.
      */
-    public void setTempLitArea(Area tempLitArea) {
-        this.tempLitArea = tempLitArea;
+    public long getImageBytes() {
+        return (mapChunks == null ? 0 : mapChunks.getImageBytes())
+                + (lightChunks == null ? 0 : lightChunks.getImageBytes());
     }
 }
@@ -0,0 +1,162 @@
+package finalproject;
+
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class makes Levels on a background thread before they are needed.
+ * While a Level is being played, the Levels for the difficulties it could lead
+ * to (one DIFFICULTY_INCREMENT harder if it's won, one easier if it's lost)
+ * are prepared, so that when it ends the next Level only needs to be taken,
+ * rather than generated while the game waits.
+ *
+ * Each Level's seed is chosen when it is prepared, in the same order every
+ * time, so the same seed gives the same series of Levels whether or not
+ * they were ready in time.
+ */
+public class LevelGenerator {
+
+    /**
+     * This represents how many times wider and taller the Levels are than
+     * normal. Levels bigger than the screen scroll to follow the Player, and
+     * only the parts of them that are on the screen are drawn, so this can be
+     * made very large.
+     */
+    public static int WORLD_SCALE = 1;
+    /**
+     * A reference to the Applet, which the Levels are made with. This may be
+     * null when there is no screen.
+     */
+    private MainApplet mainApplet;
+    /**
+     * The Random that chooses the seed of each Level.
+     */
+    private Random seeds;
+    /**
+     * The single background thread that makes the Levels.
+     */
+    private ExecutorService executor;
+    /**
+     * The Levels that have been prepared (or are still being made), by
+     * difficulty.
+     */
+    private HashMap<Double, Future<Level>> prepared;
+
+    /**
+     * Create a new LevelGenerator based on the following parameters.
+     *
+     * @param mainApplet A reference the the Applet, or null if there is none.
+     * @param seed The seed that the seeds of every Level are chosen from.
+     */
+    public LevelGenerator(MainApplet mainApplet, long seed) {
+        this.mainApplet = mainApplet;
+        seeds = new Random(seed);
+        prepared = new HashMap<Double, Future<Level>>();
+
+        //Use a low priority daemon thread, so that making Levels doesn't slow
+        //down the game or stop the program from exiting
+        executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "LevelGenerator");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * This method works out the width of a Level for a difficulty. It gets
+     * bigger the closer the difficulty gets to Level.MAX_DIFFICULTY.
+     *
+     * @param difficulty The difficulty of the Level.
+     * @return The width of the Level, in Tiles.
+     */
+    public static int getLevelWidth(double difficulty) {
+        return (Level.MIN_WIDTH + (int) ((difficulty / Level.MAX_DIFFICULTY)
+                * (Level.MAX_WIDTH - Level.MIN_WIDTH))) * WORLD_SCALE;
+    }
+
+    /**
+     * This method works out the height of a Level.
+     *
+     * @return The height of the Level, in Tiles.
+     */
+    public static int getLevelHeight() {
+        return Level.HEIGHT * WORLD_SCALE;
+    }
+
+    /**
+     * This method starts making a Level for a difficulty in the background,
+     * unless one has already been prepared for it.
+     *
+     * @param difficulty The difficulty of the Level.
+     */
+    public synchronized void prepare(final double difficulty) {
+        if (prepared.containsKey(difficulty)) {
+            return;
+        }
+
+        final long seed = seeds.nextLong();
+        prepared.put(difficulty, executor.submit(new Callable<Level>() {
+            @Override
+            public Level call() {
+                return makeLevel(difficulty, seed);
+            }
+        }));
+    }
+
+    /**
+     * This method returns a Level for a difficulty. If one was prepared, it is
+     * used, waiting for it to finish if it is still being made. Otherwise a
+     * new one is made on this thread. Any other prepared Levels are thrown
+     * away, since they were for the ways the last Level didn't end.
+     *
+     * @param difficulty The difficulty of the Level.
+     * @return The Level.
+     */
+    public synchronized Level take(double difficulty) {
+        Future<Level> future = prepared.remove(difficulty);
+
+        //The other Levels are no longer needed
+        for (Future<Level> other : prepared.values()) {
+            other.cancel(false);
+        }
+        prepared.clear();
+
+        if (future != null) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                //Making the Level failed in the background, so try again here
+                e.printStackTrace();
+            }
+        }
+
+        return makeLevel(difficulty, seeds.nextLong());
+    }
+
+    /**
+     * This method makes a Level and draws the chunks of its map, so that it is
+     * ready to be displayed.
+     *
+     * @param difficulty The difficulty of the Level.
+     * @param seed The seed of the Level.
+     * @return The Level.
+     */
+    private Level makeLevel(double difficulty, long seed) {
+        Level level = new Level(mainApplet, getLevelWidth(difficulty), getLevelHeight(), difficulty, seed);
+        level.prepareMapImage();
+        return level;
+    }
+}
@@ -26,9 +26,28 @@ public class MainApplet extends JApplet {
      * time, as well as toggle the lights on and off in the Level.
      */
     public static final boolean DEBUGGING_MODE = false;
+    /**
+     * This represents whether the game is drawn by a GameCanvas with its own
+     * render thread (active rendering), rather than by Swing repainting the
+     * ContentPanel.
+     */
+    public static boolean ACTIVE_RENDERING = false;
+    /**
+     * This represents whether the frame rate and frame time are drawn in the
+     * corner of the game. This is useful for comparing active rendering with
+     * Swing repainting.
+     */
+    public static boolean SHOW_FRAME_STATS = false;
+    /**
+     * This represents the number of times per second that the game is
+     * simulated (ticked). The Actors are drawn between their last two ticks,
+     * so the game can be drawn at a different rate (FPS) than it is ticked.
+     */
+    public static final int TICK_RATE = 30;
     /**
      * These represent constants relating the the Applet and different
-     * Components.
+     * Components. FPS is the number of frames drawn per second by the
+     * GameCanvas.
      */
     public static final int FPS = 30, APPLET_WIDTH = 1024, APPLET_HEIGHT = 768, HUD_HEIGHT = 100;
     /**
@@ -36,6 +55,12 @@ public class MainApplet extends JApplet {
      * completed.
      */
     public static final double DIFFICULTY_INCREMENT = 0.5;
+    /**
+     * This represents the seed that the seeds of every Level are chosen from.
+     * Setting it to a fixed value gives the same series of maps, Enemy and
+     * PowerUp positions and Enemy choices every time the game is played.
+     */
+    public static long SEED = System.nanoTime();
     /**
      * This represents the Timer object used to schedule the Level and Content
      * threads.
@@ -71,6 +96,11 @@ public class MainApplet extends JApplet {
      * is increased or decreased by DIFFICULTY_INCREMENT when a Level ends.
      */
     private double difficulty;
+    /**
+     * This makes the Levels that the current Level could lead to in the
+     * background, from seeds chosen from SEED.
+     */
+    private LevelGenerator levelGenerator;
 
     /**
      * This method is responsible for creating a new Level and resetting all
@@ -84,9 +114,10 @@ public class MainApplet extends JApplet {
         }
 
         //Empty projectiles and enemies. Only clear them because if they were set
-        //to new ArrayLists, any references to the old ArrayLists would be destroyed
+        //to new ArrayLists, any references to the old ArrayLists would be destroyed.
+        //The Projectiles are taken out of the old Level and kept to be used again.
         if (projectiles != null) {
-            projectiles.clear();
+            ProjectilePool.POOL.recycleAll(projectiles);
         }
         if (enemies != null) {
             enemies.clear();
@@ -99,14 +130,9 @@ public class MainApplet extends JApplet {
         //Since the timer either does not exist or is cancelled, create a new one
         timer = new Timer();
 
-        //Make the width of the level based on the difficulty - it gets bigger the
-        //closer it gets to Level.MAX_DIFFICULTY
-        int newLevelWidth = Level.MIN_WIDTH + (int) ((difficulty / Level.MAX_DIFFICULTY)
-                * (Level.MAX_WIDTH - Level.MIN_WIDTH));
-
-        //Generate a new Level
-        currentLevel = new Level(this, newLevelWidth,
-                Level.HEIGHT, difficulty);
+        //Take the new Level, which has normally already been made in the
+        //background while the last one was played
+        currentLevel = levelGenerator.take(difficulty);
 
         //Update the panels with the currentLevel
         content.changeLevel(currentLevel);
@@ -131,6 +157,12 @@ public class MainApplet extends JApplet {
         //Start threads
         currentLevel.startThread(timer);
         content.startThread(timer);
+
+        //Start making the Levels for winning and losing this one
+        if (difficulty + DIFFICULTY_INCREMENT <= Level.MAX_DIFFICULTY) {
+            levelGenerator.prepare(difficulty + DIFFICULTY_INCREMENT);
+        }
+        levelGenerator.prepare(Math.max(1.0, difficulty - DIFFICULTY_INCREMENT));
     }
 
     /**
@@ -271,6 +303,7 @@ public class MainApplet extends JApplet {
         //Initialize the difficulty to 1.0, create empty enemies and projectile ArrayLists
         //Create the Player object
         difficulty = 1.0;
+        levelGenerator = new LevelGenerator(this, SEED);
         enemies = new ArrayList<Enemy>();
         projectiles = new ArrayList<Projectile>();
         player = new Player(null, null, projectiles);
@@ -287,8 +320,9 @@ public class MainApplet extends JApplet {
         JPanel contentPane = new JPanel(new BorderLayout(), true);
         setContentPane(contentPane);
 
-        //Create these panels with references to the enemy, projectile, and player objects
-        HUD = new HUDPanel(player, enemies);
+        //Create these panels with references to the enemy, projectile, and player objects.
+        //The HUD gets what it needs from the ContentPanel after each tick.
+        HUD = new HUDPanel();
         content = new ContentPanel(this, HUD, currentLevel, player, enemies, projectiles);
 
         //Create a button to start the level
@@ -324,8 +358,17 @@ public class MainApplet extends JApplet {
         //Setup the ContentPanel component
         content.setPreferredSize(new Dimension(this.getWidth(), this.getHeight() - HUD_HEIGHT));
 
-        //Add the HUD and ContentPanel to the applet
+        //Add the HUD and ContentPanel to the applet. With active rendering,
+        //a GameCanvas is shown in place of the ContentPanel
         contentPane.add(HUD, BorderLayout.NORTH);
-        contentPane.add(content, BorderLayout.CENTER);
+        if (ACTIVE_RENDERING) {
+            GameCanvas canvas = new GameCanvas(content);
+            canvas.setBackground(content.getBackground());
+            canvas.setPreferredSize(content.getPreferredSize());
+            content.setGameCanvas(canvas);
+            contentPane.add(canvas, BorderLayout.CENTER);
+        } else {
+            contentPane.add(content, BorderLayout.CENTER);
+        }
     }
 }
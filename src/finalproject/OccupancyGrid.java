@@ -0,0 +1,135 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+
+/**
+ * This class keeps track of which objects are on each Tile of a Level, so that
+ * finding everything on a Tile is a lookup rather than a search through every
+ * object. The Level keeps one for its Projectiles (on both their position and
+ * their target Tiles) and one for its PowerUps, which are used for collision
+ * detection.
+ *
+ * An object can be on more than one Tile, and the objects on each Tile are
+ * kept in a small ArrayList that is only made once something is on that Tile.
+ */
+public class OccupancyGrid<T> {
+
+    /**
+     * The width and height of the grid, in Tiles.
+     */
+    private final int width, height;
+    /**
+     * The objects on each Tile, indexed by y * width + x. A Tile that has
+     * never had anything on it is null.
+     */
+    private final ArrayList<ArrayList<T>> cells;
+
+    /**
+     * Create a new, empty OccupancyGrid.
+     *
+     * @param width The width of the grid, in Tiles.
+     * @param height The height of the grid, in Tiles.
+     */
+    public OccupancyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+
+        cells = new ArrayList<ArrayList<T>>(width * height);
+        for (int i = 0; i < width * height; i++) {
+            cells.add(null);
+        }
+    }
+
+    /**
+     * This method puts an object on a Tile.
+     *
+     * @param object The object.
+     * @param tile The Tile to put it on. If this is null, nothing happens.
+     */
+    public void add(T object, Tile tile) {
+        int i = getIndex(tile);
+        if (i < 0) {
+            return;
+        }
+
+        ArrayList<T> cell = cells.get(i);
+        if (cell == null) {
+            cell = new ArrayList<T>(2);
+            cells.set(i, cell);
+        }
+        cell.add(object);
+    }
+
+    /**
+     * This method takes an object off of a Tile. If the object was put on the
+     * Tile more than once, it is only taken off once.
+     *
+     * @param object The object.
+     * @param tile The Tile to take it off of. If this is null, nothing happens.
+     */
+    public void remove(T object, Tile tile) {
+        int i = getIndex(tile);
+        if (i < 0) {
+            return;
+        }
+
+        ArrayList<T> cell = cells.get(i);
+        if (cell != null) {
+            //Compare by reference, since the objects don't override equals()
+            for (int j = cell.size() - 1; j >= 0; j--) {
+                if (cell.get(j) == object) {
+                    cell.remove(j);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method gets the objects on a Tile.
+     *
+     * @param tile The Tile.
+     * @return The objects on the Tile, or null if there are none (or the Tile
+     * is null). The ArrayList belongs to the grid, and changes when objects
+     * are added and removed.
+     */
+    public ArrayList<T> get(Tile tile) {
+        int i = getIndex(tile);
+        if (i < 0) {
+            return null;
+        }
+
+        return get(i);
+    }
+
+    /**
+     * This method gets the objects on a Tile, given the Tile's index rather
+     * than the Tile itself.
+     *
+     * @param index The index (y * width + x) of the Tile.
+     * @return The objects on the Tile, or null if there are none.
+     */
+    public ArrayList<T> get(int index) {
+        ArrayList<T> cell = cells.get(index);
+        return cell == null || cell.isEmpty() ? null : cell;
+    }
+
+    /**
+     * This method works out the index of a Tile in cells.
+     *
+     * @param tile The Tile.
+     * @return The index of the Tile, or -1 if it is null or outside the grid.
+     */
+    private int getIndex(Tile tile) {
+        if (tile == null) {
+            return -1;
+        }
+
+        int x = tile.getX(), y = tile.getY();
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return -1;
+        }
+        return y * width + x;
+    }
+}
@@ -0,0 +1,462 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+
+/**
+ * This class is the A* pathfinding algorithm used by a Level. All of the
+ * information about the search (parents, g-values, f-values, the open list) is
+ * kept in primitive arrays with one element per Tile, indexed by x + y * width.
+ * These arrays are created the first time a path is requested and are re-used
+ * by every search after that. Once they exist, and the Tiles along the path
+ * have been created by the Level, finding a path into an ArrayList that is
+ * big enough already does not create any garbage (PathfindingBenchmark
+ * measures this).
+ *
+ * A PathFinder can only be used by one thread at a time. Subclasses can change
+ * the heuristic used by the search by overriding getHeuristic(), and which
+ * Tiles are searched by overriding expand().
+ */
+public class PathFinder implements PathPlanner {
+
+    /**
+     * The values of states for Tiles on the open and closed lists.
+     */
+    private static final byte OPEN = 1, CLOSED = 2;
+    /**
+     * The Level that paths are found in.
+     */
+    private Level level;
+    /**
+     * The width and height of the Level, in Tiles.
+     */
+    protected int width, height;
+    /**
+     * The index of the Tile that each Tile was reached from during the current
+     * search, or -1 for the starting Tile.
+     */
+    protected int[] parents;
+    /**
+     * The number of moves required to get from the starting Tile to each Tile.
+     */
+    protected int[] gValues;
+    /**
+     * The f-value of each Tile, which is the sum of its g-value and the
+     * heuristic value (an estimation of how far away the target is).
+     * Essentially, the entire algorithm is choosing Tiles that have the
+     * smallest f-values.
+     */
+    private int[] fValues;
+    /**
+     * Whether each Tile is on the open list (OPEN) or the closed list (CLOSED)
+     * during the current search.
+     */
+    private byte[] states;
+    /**
+     * The search that each Tile was last touched by. The values in the other
+     * arrays are only valid for Tiles whose id matches currentSearchId, which
+     * means the arrays never have to be cleared between searches.
+     */
+    private int[] searchIds;
+    /**
+     * The id of the search currently being performed.
+     */
+    private int currentSearchId;
+    /**
+     * The open list, stored as a binary heap of Tile indices ordered by
+     * f-value. Only the first heapSize elements are in use.
+     */
+    private int[] heap;
+    /**
+     * The position of each Tile in the heap. This lets a Tile be moved up the
+     * heap when a shorter way to get to it is found.
+     */
+    private int[] heapIndices;
+    /**
+     * The number of Tiles currently on the open list.
+     */
+    private int heapSize;
+    /**
+     * The indices of the Tiles that have been expanded (moved to the closed
+     * list) during the current search, in the order they were expanded. Only
+     * the first closedSize elements are in use.
+     */
+    protected int[] closedTiles;
+    /**
+     * The number of Tiles that have been expanded during the current search.
+     */
+    protected int closedSize;
+    /**
+     * The coordinates of the target of the current search.
+     */
+    protected int targetX, targetY;
+
+    /**
+     * Create a PathFinder for the given Level.
+     *
+     * @param level The Level to find paths in.
+     */
+    public PathFinder(Level level) {
+        this.level = level;
+        this.width = level.getWidth();
+        this.height = level.getHeight();
+    }
+
+    /**
+     * This is an implementation of an A* path finding algorithm.
+     *
+     * http://www.policyalmanac.org/games/aStarTutorial.htm
+     *
+     * @param path A reference to the ArrayList representing the path. If null,
+     * a new ArrayList is returned. Passing in the same ArrayList every time
+     * means that no memory is allocated.
+     * @param start The starting Tile.
+     * @param target The ending Tile.
+     * @return An ArrayList of Tiles that represents a path from the start to
+     * the target. The first Tile in the path is at the end of the ArrayList.
+     * If the target cannot be reached, null is returned.
+     */
+    public ArrayList<Tile> getPath(ArrayList<Tile> path, Tile start, Tile target) {
+        //Make a new path if it's null, re-use the old one if it's not
+        if (path == null) {
+            path = new ArrayList<Tile>();
+        } else {
+            path.clear();
+        }
+        //If the current Tile is the same as the target Tile, then there is no path
+        if (start.equals(target)) {
+            return path;
+        }
+
+        if (parents == null) {
+            //If the arrays are not initialized, initialize them.
+            int numTiles = width * height;
+            parents = new int[numTiles];
+            gValues = new int[numTiles];
+            fValues = new int[numTiles];
+            states = new byte[numTiles];
+            searchIds = new int[numTiles];
+            heap = new int[numTiles];
+            heapIndices = new int[numTiles];
+            closedTiles = new int[numTiles];
+        }
+        //Otherwise, start a new search, which invalidates everything left
+        //over from the last one
+        currentSearchId++;
+        heapSize = 0;
+        closedSize = 0;
+
+        targetX = target.getX();
+        targetY = target.getY();
+        int targetIndex = targetX + targetY * width;
+        searchStarting(targetIndex);
+
+        //Put the first Tile on the open list
+        int startIndex = start.getX() + start.getY() * width;
+        touch(startIndex, -1, 0, 0);
+
+        boolean targetFound = false;
+
+        //While there are still Tiles that can be reached from the start
+        while (heapSize > 0) {
+            //Take the Tile with the smallest f-value off the open list and close it
+            int current = heapPop();
+            states[current] = CLOSED;
+            closedTiles[closedSize++] = current;
+
+            //Check if this Tile is the target. If it is, we can stop looking.
+            if (current == targetIndex) {
+                targetFound = true;
+                break;
+            }
+
+            expand(current);
+        }
+
+        searchFinished(targetIndex, targetFound);
+
+        // If weve exhausted all of the tiles that can be reached from the
+        // starting tile, but still havent found the target
+        if (!targetFound) {
+            // Then the target is unreachable
+            return null;
+        }
+
+        // The first Tile in the path is the last element in the ArrayList.
+        // Start at the target and follow the parents all the way back to the
+        // start, which is not part of the path. A Tile's parent is always in
+        // the same row or column, but may be more than one Tile away, so every
+        // Tile in between is added as well.
+        for (int i = targetIndex; i != startIndex; i = parents[i]) {
+            int x = i % width, y = i / width;
+            int parentX = parents[i] % width, parentY = parents[i] / width;
+            int dx = Integer.signum(parentX - x), dy = Integer.signum(parentY - y);
+
+            while (x != parentX || y != parentY) {
+                path.add(level.getTile(x, y));
+                x += dx;
+                y += dy;
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * This method looks at every Tile that can be reached in one move from the
+     * Tile that was just taken off the open list, and puts them on the open
+     * list with consider().
+     *
+     * @param current The index of the Tile that was just taken off the open
+     * list.
+     */
+    protected void expand(int current) {
+        int x = current % width, y = current / width;
+        int g = gValues[current] + 1;
+
+        //For each adjacent Tile: 0 is left, 1 is right, 2 is up, 3 is down
+        for (int direction = 0; direction < 4; direction++) {
+            int next = getNeighbour(x, y, direction);
+
+            //Skip Tiles that are off the map or are walls
+            if (next >= 0 && isOpen(next % width, next / width)) {
+                consider(next, current, g);
+            }
+        }
+    }
+
+    /**
+     * This method puts a Tile on the open list, or updates it if it is already
+     * on the open list and this is a shorter way to get to it. Tiles on the
+     * closed list are ignored.
+     *
+     * @param next The index of the Tile.
+     * @param parent The index of the Tile it is being reached from.
+     * @param g The number of moves from the starting Tile to next, going
+     * through parent.
+     * @return Whether or not next was added or updated.
+     */
+    protected boolean consider(int next, int parent, int g) {
+        if (searchIds[next] != currentSearchId) {
+            //If its not on the open list, add it
+            touch(next, parent, g, getHeuristic(next, targetX, targetY));
+            return true;
+        } else if (states[next] == OPEN && g < gValues[next]) {
+            //If this is a better way to get to a Tile on the open
+            //list, update it. The h-value is unchanged.
+            fValues[next] += g - gValues[next];
+            gValues[next] = g;
+            parents[next] = parent;
+            heapSiftUp(heapIndices[next]);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * This method determines whether or not (x, y) is on the map and is not a
+     * wall.
+     *
+     * @param x The x-coordinate of the Tile.
+     * @param y The y-coordinate of the Tile.
+     * @return Whether or not the Tile can be walked on.
+     */
+    protected boolean isOpen(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height
+                && !level.isWall(x + y * width);
+    }
+
+    /**
+     * This method returns the heuristic value of a Tile, which is an estimate
+     * of how many moves it will take to get from the Tile to the target. It
+     * must never over-estimate, otherwise the path found may not be the
+     * shortest one.
+     *
+     * This heuristic calculation is called the Manhattan method because it
+     * estimates based on the sum of the number of horizontal and vertical
+     * Tiles to the target.
+     *
+     * @param index The index of the Tile.
+     * @param targetX The x-coordinate of the target.
+     * @param targetY The y-coordinate of the target.
+     * @return The heuristic value of the Tile.
+     */
+    protected int getHeuristic(int index, int targetX, int targetY) {
+        return Math.abs(targetX - index % width)
+                + Math.abs(targetY - index / width);
+    }
+
+    /**
+     * This method is called at the start of every search, before any Tiles
+     * are looked at. By default, it does nothing.
+     *
+     * @param targetIndex The index of the target Tile.
+     */
+    protected void searchStarting(int targetIndex) {
+    }
+
+    /**
+     * This method is called at the end of every search that got as far as
+     * looking at Tiles. At this point, closedTiles holds every Tile that was
+     * expanded and gValues holds their distance from the start. By default,
+     * it does nothing.
+     *
+     * @param targetIndex The index of the target Tile.
+     * @param targetFound Whether or not a path to the target was found.
+     */
+    protected void searchFinished(int targetIndex, boolean targetFound) {
+    }
+
+    /**
+     * This method returns the index of the Tile next to (x, y) in the given
+     * direction. This takes the place of Level.getAdjacent() so that no array
+     * has to be made for every Tile that is searched.
+     *
+     * @param x The x-coordinate of the Tile.
+     * @param y The y-coordinate of the Tile.
+     * @param direction The direction to look in. 0 is left, 1 is right, 2 is
+     * up, 3 is down.
+     * @return The index of the adjacent Tile, or -1 if it is off the map.
+     */
+    private int getNeighbour(int x, int y, int direction) {
+        switch (direction) {
+            case 0:
+                return x > 0 ? x - 1 + y * width : -1;
+            case 1:
+                return x < width - 1 ? x + 1 + y * width : -1;
+            case 2:
+                return y > 0 ? x + (y - 1) * width : -1;
+            case 3:
+            default:
+                return y < height - 1 ? x + (y + 1) * width : -1;
+        }
+    }
+
+    /**
+     * This method records a Tile as seen by the current search, and puts it on
+     * the open list.
+     *
+     * @param index The index of the Tile.
+     * @param parent The index of the Tile it was reached from, or -1.
+     * @param g The number of moves from the starting Tile.
+     * @param h The heuristic value of the Tile.
+     */
+    private void touch(int index, int parent, int g, int h) {
+        searchIds[index] = currentSearchId;
+        parents[index] = parent;
+        gValues[index] = g;
+        fValues[index] = g + h;
+        states[index] = OPEN;
+        heapPush(index);
+    }
+
+    /**
+     * This method determines whether or not the first Tile should be taken off
+     * the open list before the second. Tiles with smaller f-values come first.
+     * Ties are broken in favour of the larger g-value, which is the Tile that
+     * is closer to the target.
+     *
+     * @param a The index of the first Tile.
+     * @param b The index of the second Tile.
+     * @return Whether or not a should come before b.
+     */
+    private boolean heapBefore(int a, int b) {
+        if (fValues[a] != fValues[b]) {
+            return fValues[a] < fValues[b];
+        }
+        return gValues[a] > gValues[b];
+    }
+
+    /**
+     * This method adds a Tile to the open list.
+     *
+     * @param index The index of the Tile to add.
+     */
+    private void heapPush(int index) {
+        heap[heapSize] = index;
+        heapIndices[index] = heapSize;
+        heapSize++;
+        heapSiftUp(heapSize - 1);
+    }
+
+    /**
+     * This method removes and returns the Tile with the smallest f-value from
+     * the open list.
+     *
+     * @return The index of the Tile with the smallest f-value.
+     */
+    private int heapPop() {
+        int min = heap[0];
+        heapSize--;
+
+        //Move the last Tile to the top and let it sink to its place
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndices[heap[0]] = 0;
+            heapSiftDown(0);
+        }
+
+        return min;
+    }
+
+    /**
+     * This method moves the Tile at the given position in the heap up until
+     * its parent in the heap comes before it.
+     *
+     * @param i The position in the heap of the Tile to move.
+     */
+    private void heapSiftUp(int i) {
+        int index = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!heapBefore(index, heap[parent])) {
+                break;
+            }
+            //Move the parent down into the hole
+            heap[i] = heap[parent];
+            heapIndices[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = index;
+        heapIndices[index] = i;
+    }
+
+    /**
+     * This method moves the Tile at the given position in the heap down until
+     * both of its children in the heap come after it.
+     *
+     * @param i The position in the heap of the Tile to move.
+     */
+    private void heapSiftDown(int i) {
+        int index = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            //Pick the child that comes first
+            if (child + 1 < heapSize && heapBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!heapBefore(heap[child], index)) {
+                break;
+            }
+            //Move the child up into the hole
+            heap[i] = heap[child];
+            heapIndices[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = index;
+        heapIndices[index] = i;
+    }
+
+    /**
+     * Gets the number of Tiles that were expanded during the last search.
+     *
+     * @return The number of Tiles expanded by the last search.
+     */
+    public int getExpandedCount() {
+        return closedSize;
+    }
+}
@@ -0,0 +1,34 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+
+/**
+ * This interface represents anything that can find a path from one Tile to
+ * another in a Level. It allows an Enemy to choose which pathfinding algorithm
+ * it uses.
+ */
+public interface PathPlanner {
+
+    /**
+     * This method finds a path from the start Tile to the target Tile.
+     *
+     * @param path A reference to the ArrayList representing the path. If null,
+     * a new ArrayList is returned.
+     * @param start The starting Tile.
+     * @param target The ending Tile.
+     * @return An ArrayList of Tiles that represents a path from the start to
+     * the target. The first Tile in the path is at the end of the ArrayList.
+     * If the target cannot be reached, null is returned.
+     */
+    public ArrayList<Tile> getPath(ArrayList<Tile> path, Tile start, Tile target);
+
+    /**
+     * Gets the number of Tiles that were expanded (taken off the open list)
+     * during the last call to getPath(). This is useful for comparing how much
+     * work different planners do.
+     *
+     * @return The number of Tiles expanded by the last search.
+     */
+    public int getExpandedCount();
+}
@@ -3,8 +3,6 @@ package finalproject;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 
@@ -54,7 +52,8 @@ public class Player extends Actor implements KeyListener {
      */
     private int shootInterval;
     /**
-     * The time that the last Projectile was fired.
+     * The time, in milliseconds on the GameClock, that the last Projectile was
+     * fired.
      */
     private long lastProjectileTime;
 
@@ -73,7 +72,7 @@ public class Player extends Actor implements KeyListener {
         //Initialize default values
         keys = new ArrayList<Character>();
         shootInterval = DEFAULT_SHOOT_INTERVAL;
-        lastProjectileTime = 0;
+        lastProjectileTime = GameClock.NEVER;
 
         //This frame has the character just standing in one place.
         xDefaultFrame = 1;
@@ -114,12 +113,12 @@ public class Player extends Actor implements KeyListener {
             }
 
             //Make sure the projectileDirection is correct and it's been long enough since the last Projectile
-            long now = System.currentTimeMillis();
+            long now = GameClock.getClock().millis();
             if (projectileDirection != null && !projectileDirection.getIsWall()
                     && now - lastProjectileTime > shootInterval) {
 
-                //Create a new Projectile
-                projectiles.add(new Projectile(parent, projectileDirection,
+                //Fire a Projectile, reusing one that was destroyed if possible
+                projectiles.add(ProjectilePool.POOL.obtain(parent, projectileDirection,
                         currentLevel));
 
                 //Record the time it was shot at
@@ -166,21 +165,6 @@ public class Player extends Actor implements KeyListener {
         updateAnimation();
     }
 
-    @Override
-    /**
-     * This method returns an Area object representing the Area around the
-     * Player that is not shown as darkness in the Level. Essentially, this
-     * means that the Area defined by this function is "cut out" from the black
-     * that covers the Level.
-     */
-    protected Area getLight() {
-        int x = position.getXPixels() + xMove + Tile.WIDTH / 2;
-        int y = position.getYPixels() + yMove + Tile.HEIGHT / 2;
-
-        return new Area(new Ellipse2D.Float(x - lightRadius, y
-                - lightRadius, lightRadius * 2, lightRadius * 2));
-    }
-
     /**
      * This method is responsible for resetting the Player to its default
      * starting position.
@@ -211,14 +195,35 @@ public class Player extends Actor implements KeyListener {
     }
 
     /**
-     * This method is called when a key is pressed. When this occurs, the
-     * Character representing the key is converted to lower case, and added to
-     * the ArrayList of Characters.
+     * This method is called when a key is pressed. When this occurs, the key
+     * is pressed for the Player (see pressKey()).
      *
      * @param e The KeyEvent
      */
     public void keyPressed(KeyEvent e) {
-        char c = Character.toLowerCase(e.getKeyChar());
+        pressKey(e.getKeyChar());
+    }
+
+    /**
+     * This method is called when a key is released. When this occurs, the key
+     * is released for the Player (see releaseKey()).
+     *
+     * @param e The KeyEvent
+     */
+    public void keyReleased(KeyEvent e) {
+        releaseKey(e.getKeyChar());
+    }
+
+    /**
+     * This method presses a key for the Player. The Character representing
+     * the key is converted to lower case, and added to the ArrayList of
+     * Characters. This is used by keyPressed(), and lets the Player be
+     * controlled when there is no keyboard.
+     *
+     * @param key The key that was pressed.
+     */
+    public void pressKey(char key) {
+        char c = Character.toLowerCase(key);
 
         if (!keys.contains(c)) {
             keys.add(c);
@@ -226,14 +231,14 @@ public class Player extends Actor implements KeyListener {
     }
 
     /**
-     * This method is called when a key is released. When this occurs, the
-     * Character representing the key is converted to lower case, and removed
-     * from the ArrayList of Characters.
+     * This method releases a key for the Player. The Character representing
+     * the key is converted to lower case, and removed from the ArrayList of
+     * Characters.
      *
-     * @param e The KeyEvent
+     * @param key The key that was released.
      */
-    public void keyReleased(KeyEvent e) {
-        Character c = Character.toLowerCase(e.getKeyChar());
+    public void releaseKey(char key) {
+        Character c = Character.toLowerCase(key);
 
         keys.remove(c);
     }
@@ -1,7 +1,6 @@
 package finalproject;
 
 
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 
 /**
@@ -40,16 +39,13 @@ public abstract class PowerUp {
     }
 
     /**
-     * This method is responsible for drawing the PowerUp to the screen.
+     * Gets the image that is drawn for the PowerUp. It is drawn in the top
+     * left corner of the PowerUp's position Tile.
      *
-     * @param g The Graphics2D object to draw to.
+     * @return The image for the PowerUp.
      */
-    public void draw(Graphics2D g) {
-        //If it's not null, draw it.
-        if (powerUpImage != null) {
-            g.drawImage(powerUpImage, position.getXPixels(),
-                    position.getYPixels(), null);
-        }
+    public BufferedImage getImage() {
+        return powerUpImage;
     }
 
     /**
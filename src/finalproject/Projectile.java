@@ -1,8 +1,6 @@
 package finalproject;
 
 
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
 
 /**
@@ -36,6 +34,12 @@ public class Projectile extends Actor {
      * Whether or not the Projectile is destroyed.
      */
     private boolean destroyProjectile;
+    /**
+     * The position and target Tiles that the Projectile is on in the Level's
+     * projectile grid. These are compared with position and target after
+     * every tick, so the grid only changes when the Projectile changes Tiles.
+     */
+    private Tile occupiedPosition, occupiedTarget;
 
     /**
      * Create a Projectile based on the parameters below.
@@ -57,6 +61,82 @@ public class Projectile extends Actor {
         // Dont go to a default frame when the projectile stops
         xDefaultFrame = -1;
         yDefaultFrame = -1;
+
+        updateOccupancy();
+    }
+
+    @Override
+    /**
+     * This method advances the Projectile by one tick, and then moves it in
+     * the Level's projectile grid if it has changed Tiles.
+     */
+    public void tick() {
+        super.tick();
+
+        updateOccupancy();
+    }
+
+    /**
+     * This method makes a Projectile that has been destroyed ready to be
+     * fired again, as if it had just been made with these parameters. It is
+     * used by ProjectilePool.
+     *
+     * @param newPosition The position Tile.
+     * @param newTarget The initial target Tile. This represents the direction
+     * that the Projectile will continue to travel in until it must be
+     * destroyed.
+     * @param newLevel A reference to the current Level.
+     */
+    public void reset(Tile newPosition, Tile newTarget, Level newLevel) {
+        removeFromLevel();
+        super.reset(newLevel, newPosition);
+
+        this.health = 0;
+        this.target = newTarget;
+        destroyProjectile = false;
+        moveLeft = false;
+        moveRight = false;
+        moveUp = false;
+        moveDown = false;
+        moveToTarget();
+
+        updateOccupancy();
+    }
+
+    /**
+     * This method brings the Level's projectile grid up to date with the
+     * Projectile's position and target Tiles.
+     */
+    private void updateOccupancy() {
+        if (currentLevel == null) {
+            return;
+        }
+
+        OccupancyGrid<Projectile> grid = currentLevel.getProjectileGrid();
+        if (occupiedPosition != position) {
+            grid.remove(this, occupiedPosition);
+            grid.add(this, position);
+            occupiedPosition = position;
+        }
+        if (occupiedTarget != target) {
+            grid.remove(this, occupiedTarget);
+            grid.add(this, target);
+            occupiedTarget = target;
+        }
+    }
+
+    /**
+     * This method takes the Projectile out of the Level's projectile grid. It
+     * must be called when the Projectile is removed from the game.
+     */
+    public void removeFromLevel() {
+        if (currentLevel != null) {
+            OccupancyGrid<Projectile> grid = currentLevel.getProjectileGrid();
+            grid.remove(this, occupiedPosition);
+            grid.remove(this, occupiedTarget);
+        }
+        occupiedPosition = null;
+        occupiedTarget = null;
     }
 
     @Override
@@ -97,17 +177,13 @@ public class Projectile extends Actor {
 
     @Override
     /**
-     * This method returns an Area object representing the Area around the
-     * Projectile that is not shown as darkness in the Level. Essentially, this
-     * means that the Area defined by this function is "cut out" from the black
-     * that covers the Level.
+     * This method returns the radius of the circle of light surrounding the
+     * Projectile, which is half that of the other Actors.
+     *
+     * @return The radius of the light, in pixels.
      */
-    protected Area getLight() {
-        int x = position.getXPixels() + xMove + Tile.WIDTH / 2;
-        int y = position.getYPixels() + yMove + Tile.HEIGHT / 2;
-
-        return new Area(new Ellipse2D.Float(x - lightRadius / 2, y
-                - lightRadius / 2, lightRadius, lightRadius));
+    public int getLightRadius() {
+        return lightRadius / 2;
     }
 
     /**
@@ -0,0 +1,129 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+
+/**
+ * This class keeps Projectiles that have been destroyed so that they can be
+ * used again, instead of making a new Projectile for every shot. Once the pool
+ * has filled up with Projectiles from earlier shots, firing and destroying
+ * Projectiles doesn't create any garbage.
+ *
+ * The pool holds at most a fixed number of Projectiles. Any more that are
+ * recycled are simply left for the garbage collector. It is only used by the
+ * update thread, so it is not synchronized.
+ */
+public class ProjectilePool {
+
+    /**
+     * The number of Projectiles that the shared pool can hold.
+     */
+    public static final int CAPACITY = 64;
+    /**
+     * The pool that the game's Projectiles are taken from and recycled to.
+     */
+    public static final ProjectilePool POOL = new ProjectilePool(CAPACITY);
+    /**
+     * The Projectiles that are ready to be used again. Only the first numFree
+     * are used.
+     */
+    private final Projectile[] free;
+    /**
+     * The number of Projectiles in free.
+     */
+    private int numFree;
+    /**
+     * The number of Projectiles that have been made, and the number that have
+     * been used again, by obtain().
+     */
+    private int created, reused;
+
+    /**
+     * Create a new, empty ProjectilePool.
+     *
+     * @param capacity The most Projectiles that the pool can hold.
+     */
+    public ProjectilePool(int capacity) {
+        free = new Projectile[capacity];
+    }
+
+    /**
+     * This method gets a Projectile that is ready to be fired. It is one that
+     * was recycled if there is one, or a new one if there isn't.
+     *
+     * @param position The position Tile.
+     * @param target The initial target Tile. This represents the direction that
+     * the Projectile will continue to travel in.
+     * @param currentLevel A reference to the current Level.
+     * @return The Projectile.
+     */
+    public Projectile obtain(Tile position, Tile target, Level currentLevel) {
+        if (numFree == 0) {
+            created++;
+            return new Projectile(position, target, currentLevel);
+        }
+
+        Projectile projectile = free[--numFree];
+        free[numFree] = null;
+        projectile.reset(position, target, currentLevel);
+        reused++;
+        return projectile;
+    }
+
+    /**
+     * This method takes a Projectile that has been removed from the game out
+     * of its Level, and keeps it to be used again if there is room.
+     *
+     * @param projectile The Projectile, which must no longer be in the game.
+     */
+    public void recycle(Projectile projectile) {
+        projectile.removeFromLevel();
+
+        if (numFree < free.length) {
+            free[numFree++] = projectile;
+        }
+    }
+
+    /**
+     * This method recycles every Projectile in an ArrayList and then empties
+     * it. This is used when a Level ends while Projectiles are still flying.
+     *
+     * @param projectiles The Projectiles, which must no longer be in the game.
+     */
+    public void recycleAll(ArrayList<Projectile> projectiles) {
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile projectile = projectiles.get(i);
+            if (projectile != null) {
+                recycle(projectile);
+            }
+        }
+        projectiles.clear();
+    }
+
+    /**
+     * Gets the number of Projectiles that are ready to be used again.
+     *
+     * @return The number of Projectiles in the pool.
+     */
+    public int getNumFree() {
+        return numFree;
+    }
+
+    /**
+     * Gets the number of new Projectiles that obtain() has had to make.
+     *
+     * @return The number of Projectiles made.
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    /**
+     * Gets the number of times that obtain() has used a recycled Projectile.
+     *
+     * @return The number of Projectiles used again.
+     */
+    public int getReused() {
+        return reused;
+    }
+}
@@ -57,6 +57,6 @@ public class RandomEnemy extends Enemy {
      */
     protected boolean chooseRandom() {
         //The RandomEnemy will choose a random Tile RANDOM_CHOICE times out of 10
-        return Math.random() * 10 < RANDOM_CHOICE;
+        return random.nextInt(10) < RANDOM_CHOICE;
     }
 }
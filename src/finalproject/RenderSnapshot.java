@@ -0,0 +1,270 @@
+package finalproject;
+
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+/**
+ * This class holds everything that is needed to draw one tick of the game: the
+ * image and position of each PowerUp, Actor and Projectile, the circles of
+ * light, and the health of the Player and the Enemies. A new RenderSnapshot is
+ * made by the update thread at the end of every tick and is never changed
+ * after that, so the paint threads can draw it without reading the
+ * ArrayLists and Actors that the update thread is changing, and without
+ * holding any locks.
+ */
+public class RenderSnapshot {
+
+    /**
+     * The Level that the snapshot was taken in.
+     */
+    private final Level level;
+    /**
+     * The image of each sprite, in the order they are drawn.
+     */
+    private final BufferedImage[] images;
+    /**
+     * The position of the top left corner of each sprite before the last tick
+     * and after it, as previous x, previous y, x, y, in pixels.
+     */
+    private final int[] positions;
+    /**
+     * The number of sprites in images and positions that are used.
+     */
+    private int numSprites;
+    /**
+     * The position of the top left corner of the Player's Tile before the last
+     * tick and after it, as previous x, previous y, x, y, in pixels.
+     */
+    private final int[] playerPosition = new int[4];
+    /**
+     * The circles of light that are lit during this tick, as the x, y and
+     * radius of each circle, in pixels.
+     */
+    private final int[] lights;
+    /**
+     * The health of the Player.
+     */
+    private final int playerHealth;
+    /**
+     * The health of each Enemy, in the same order as the Enemy ArrayList.
+     */
+    private final int[] enemyHealth;
+    /**
+     * The value of System.nanoTime() when the Actors were last ticked.
+     */
+    private final long tickTime;
+
+    /**
+     * Create a new RenderSnapshot of the game. This must be called from the
+     * update thread, since it reads the Actors and the ArrayLists.
+     *
+     * @param level The current Level.
+     * @param player The Player.
+     * @param enemies The ArrayList of Enemies.
+     * @param projectiles The ArrayList of Projectiles.
+     * @param lights The circles of light that are lit during this tick. The
+     * array must not be changed afterwards.
+     * @param tickTime The value of System.nanoTime() when the Actors were last
+     * ticked.
+     */
+    public RenderSnapshot(Level level, Player player, ArrayList<Enemy> enemies,
+            ArrayList<Projectile> projectiles, int[] lights, long tickTime) {
+        this.level = level;
+        this.lights = lights;
+        this.tickTime = tickTime;
+
+        ArrayList<PowerUp> powerUps = level.getPowerUps();
+        EnemySwarm swarm = level.getSwarm();
+        int numEnemies = enemies.size() + swarm.getCount();
+        int maxSprites = powerUps.size() + 1 + numEnemies + projectiles.size();
+        images = new BufferedImage[maxSprites];
+        positions = new int[maxSprites * 4];
+
+        //Add the sprites in the order they should be drawn: PowerUps, then the
+        //Player, then the Enemies and then the Projectiles
+        for (int i = 0; i < powerUps.size(); i++) {
+            PowerUp powerUp = powerUps.get(i);
+            if (powerUp != null && powerUp.getImage() != null) {
+                int x = powerUp.getPosition().getXPixels(), y = powerUp.getPosition().getYPixels();
+                addSprite(powerUp.getImage(), x, y, x, y);
+            }
+        }
+
+        addActor(player);
+        if (player.getPosition() != null) {
+            playerPosition[0] = player.getPreviousXPixels();
+            playerPosition[1] = player.getPreviousYPixels();
+            playerPosition[2] = player.getXPixels();
+            playerPosition[3] = player.getYPixels();
+        }
+
+        enemyHealth = new int[numEnemies];
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            if (enemy != null) {
+                addActor(enemy);
+                enemyHealth[i] = enemy.getHealth();
+            }
+        }
+        for (int i = 0; i < swarm.getCount(); i++) {
+            BufferedImage frame = swarm.getCurrentFrame(i);
+            if (frame != null) {
+                int xOffset = Tile.WIDTH / 2 - frame.getWidth() / 2;
+                int yOffset = Tile.HEIGHT / 2 - frame.getHeight() / 2;
+                addSprite(frame, swarm.getPreviousXPixels(i) + xOffset, swarm.getPreviousYPixels(i) + yOffset,
+                        swarm.getXPixels(i) + xOffset, swarm.getYPixels(i) + yOffset);
+            }
+            enemyHealth[enemies.size() + i] = swarm.getHealth(i);
+        }
+
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile projectile = projectiles.get(i);
+            if (projectile != null) {
+                addActor(projectile);
+            }
+        }
+
+        playerHealth = player.getHealth();
+    }
+
+    /**
+     * This method adds an Actor's current frame to the sprites, centered in
+     * the Actor's Tile.
+     *
+     * @param actor The Actor to add.
+     */
+    private void addActor(Actor actor) {
+        if (actor.spriteAtlas == null || actor.getPosition() == null) {
+            return;
+        }
+
+        BufferedImage frame = actor.getCurrentFrame();
+        int xOffset = Tile.WIDTH / 2 - frame.getWidth() / 2;
+        int yOffset = Tile.HEIGHT / 2 - frame.getHeight() / 2;
+        addSprite(frame, actor.getPreviousXPixels() + xOffset, actor.getPreviousYPixels() + yOffset,
+                actor.getXPixels() + xOffset, actor.getYPixels() + yOffset);
+    }
+
+    /**
+     * This method adds a sprite to the snapshot.
+     *
+     * @param image The image of the sprite.
+     * @param previousX The x-coordinate of the sprite before the last tick.
+     * @param previousY The y-coordinate of the sprite before the last tick.
+     * @param x The x-coordinate of the sprite.
+     * @param y The y-coordinate of the sprite.
+     */
+    private void addSprite(BufferedImage image, int previousX, int previousY, int x, int y) {
+        int i = numSprites * 4;
+        images[numSprites++] = image;
+        positions[i] = previousX;
+        positions[i + 1] = previousY;
+        positions[i + 2] = x;
+        positions[i + 3] = y;
+    }
+
+    /**
+     * This method draws every sprite in the snapshot, between where it was
+     * before the last tick and where it is now. Sprites outside of the
+     * Graphics2D's clip are skipped.
+     *
+     * @param g The Graphics2D object to draw to.
+     * @param alpha How far between the last tick and the next one the sprites
+     * are drawn, from 0 (where they were before the last tick) to 1 (where
+     * they are now).
+     */
+    public void drawSprites(Graphics2D g, double alpha) {
+        Rectangle clip = g.getClipBounds();
+        for (int i = 0; i < numSprites; i++) {
+            int previousX = positions[i * 4], previousY = positions[i * 4 + 1];
+            int x = previousX + (int) Math.round((positions[i * 4 + 2] - previousX) * alpha);
+            int y = previousY + (int) Math.round((positions[i * 4 + 3] - previousY) * alpha);
+            if (clip == null || clip.intersects(x, y, images[i].getWidth(), images[i].getHeight())) {
+                g.drawImage(images[i], x, y, null);
+            }
+        }
+    }
+
+    /**
+     * Gets the x-coordinate of the center of the Player's Tile, between where
+     * it was before the last tick and where it is now.
+     *
+     * @param alpha How far between the last tick and the next one, from 0 to
+     * 1 (see drawSprites()).
+     * @return The x-coordinate, in pixels.
+     */
+    public int getPlayerCenterX(double alpha) {
+        return playerPosition[0] + (int) Math.round((playerPosition[2] - playerPosition[0]) * alpha) + Tile.WIDTH / 2;
+    }
+
+    /**
+     * Gets the y-coordinate of the center of the Player's Tile, between where
+     * it was before the last tick and where it is now.
+     *
+     * @param alpha How far between the last tick and the next one, from 0 to
+     * 1 (see drawSprites()).
+     * @return The y-coordinate, in pixels.
+     */
+    public int getPlayerCenterY(double alpha) {
+        return playerPosition[1] + (int) Math.round((playerPosition[3] - playerPosition[1]) * alpha) + Tile.HEIGHT / 2;
+    }
+
+    /**
+     * Gets the Level that the snapshot was taken in.
+     *
+     * @return The Level.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the circles of light that are lit during this tick.
+     *
+     * @return The x, y and radius of each circle, in pixels. The array must not
+     * be changed.
+     */
+    public int[] getLights() {
+        return lights;
+    }
+
+    /**
+     * Gets the health of the Player.
+     *
+     * @return The health of the Player.
+     */
+    public int getPlayerHealth() {
+        return playerHealth;
+    }
+
+    /**
+     * Gets the number of Enemies in the snapshot.
+     *
+     * @return The number of Enemies.
+     */
+    public int getNumEnemies() {
+        return enemyHealth.length;
+    }
+
+    /**
+     * Gets the health of an Enemy.
+     *
+     * @param i The index of the Enemy.
+     * @return The health of the Enemy.
+     */
+    public int getEnemyHealth(int i) {
+        return enemyHealth[i];
+    }
+
+    /**
+     * Gets the time that the Actors were last ticked.
+     *
+     * @return The value of System.nanoTime() when the Actors were last ticked.
+     */
+    public long getTickTime() {
+        return tickTime;
+    }
+}
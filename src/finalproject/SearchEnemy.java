@@ -57,4 +57,16 @@ public class SearchEnemy extends Enemy {
     protected boolean updatePath() {
         return pathToPlayer == null || pathToPlayer.isEmpty();
     }
+
+    /**
+     * This method overrides Enemy's followFlowField() method. The SearchEnemy
+     * commits to the path it chose rather than following the Player's current
+     * position, so it does not step along the flow field directly. Instead it
+     * reads its whole path off the flow field each time it retargets.
+     *
+     * @return Whether or not the Enemy follows the flow field.
+     */
+    protected boolean followFlowField() {
+        return false;
+    }
 }
@@ -0,0 +1,441 @@
+package finalproject;
+
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class represents the rules of the game, without any drawing. Each call
+ * to tick() advances the Player, the Enemies and the Projectiles by one fixed
+ * step and does any collision or other logic between them. The ContentPanel
+ * ticks it on its Timer, but it can also be ticked as fast as possible
+ * without a screen, which is how the cost of simulating the game is measured.
+ */
+public class Simulation {
+
+    /**
+     * This represents whether the Enemies are ticked on all of the processors
+     * at once. Each Enemy only changes itself when it's ticked, so they can
+     * be ticked in any order. The collisions, which change the Player, the
+     * Projectiles and the ArrayList of Enemies, are always done afterwards on
+     * a single thread and in order, so the game plays out exactly the same
+     * either way.
+     */
+    public static boolean PARALLEL_ENEMIES = false;
+    /**
+     * The largest number of Enemies that one thread ticks without splitting
+     * them up any further.
+     */
+    public static final int PARALLEL_THRESHOLD = 16;
+    /**
+     * The threads that tick the Enemies when PARALLEL_ENEMIES is enabled. They
+     * are shared by every Simulation, and are only started the first time
+     * they're needed.
+     */
+    private static ForkJoinPool enemyPool;
+
+    /**
+     * A reference to the Applet, which is told when a Level ends. This may be
+     * null when the game is simulated without a screen.
+     */
+    private MainApplet mainApplet;
+    /**
+     * A reference to the current Level. This must be renewed with new Levels.
+     */
+    private Level currentLevel;
+    /**
+     * A reference to the Player, this should never be renewed.
+     */
+    private Player player;
+    /**
+     * A reference to the Enemy ArrayList, this should never be renewed.
+     */
+    private ArrayList<Enemy> enemies;
+    /**
+     * A reference to the Projectile ArrayList, this should never be renewed.
+     */
+    private ArrayList<Projectile> projectiles;
+    /**
+     * Whether or not the current Level has ended, and whether it was won.
+     */
+    private boolean levelOver, levelWon;
+    /**
+     * The number of times that the Simulation has been ticked.
+     */
+    private long ticks;
+
+    /**
+     * This class ticks a range of the Enemies. If there are too many for one
+     * thread, it splits them in half and ticks both halves at once.
+     */
+    class EnemyTask extends RecursiveAction {
+
+        /**
+         * The index of the first Enemy to tick, and the index after the last.
+         */
+        private final int start, end;
+
+        /**
+         * Create a new EnemyTask for a range of the Enemies.
+         *
+         * @param start The index of the first Enemy to tick.
+         * @param end The index after the last Enemy to tick.
+         */
+        EnemyTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        /**
+         * This method ticks the Enemies in the range, splitting the range up
+         * if it's larger than PARALLEL_THRESHOLD.
+         */
+        protected void compute() {
+            if (end - start <= PARALLEL_THRESHOLD) {
+                for (int i = start; i < end; i++) {
+                    Enemy enemy = enemies.get(i);
+                    if (enemy != null) {
+                        enemy.tick();
+                    }
+                }
+            } else {
+                int middle = (start + end) / 2;
+                invokeAll(new EnemyTask(start, middle), new EnemyTask(middle, end));
+            }
+        }
+    }
+
+    /**
+     * Create a new Simulation based on the following parameters.
+     *
+     * @param mainApplet A reference the the Applet, or null if there is none.
+     * @param currentLevel A reference to the current Level.
+     * @param player A reference to the Player.
+     * @param enemies A reference to the ArrayList of Enemies.
+     * @param projectiles A reference to the ArrayList of Projectiles.
+     */
+    public Simulation(MainApplet mainApplet, Level currentLevel, Player player,
+            ArrayList<Enemy> enemies, ArrayList<Projectile> projectiles) {
+        this.mainApplet = mainApplet;
+        this.currentLevel = currentLevel;
+        this.player = player;
+        this.enemies = enemies;
+        this.projectiles = projectiles;
+    }
+
+    /**
+     * This method advances the game by one tick. It is responsible for
+     * updating all elements of the game, including the Player, the Enemies,
+     * the Projectiles, and doing any collision or other logic between them.
+     */
+    public void tick() {
+        ticks++;
+
+        //All code in this if statement required player to not be null.
+        if (player != null) {
+            //Update the player
+            player.tick();
+
+            //If the player's dead, end the level
+            if (player.isDead()) {
+                endLevel(false);
+            }
+
+            //Do the following for all PowerUps that the player collides with.
+            //Go backwards, since destroyed PowerUps are removed.
+            ArrayList<PowerUp> playerPowerUps = currentLevel.getPowerUpsAt(player.getPosition());
+            if (playerPowerUps != null) {
+                for (int i = playerPowerUps.size() - 1; i >= 0; i--) {
+                    PowerUp powerUp = playerPowerUps.get(i);
+                    powerUp.doPowerUp(player);
+
+                    //If the PowerUp must be destroyed
+                    if (powerUp.getDestroyed()) {
+                        currentLevel.removePowerUp(powerUp);
+                    }
+                }
+            }
+
+            //Make sure the flow field leads to the Player before any Enemy
+            //reads it, since they may be ticked at the same time
+            currentLevel.updateFlowField(player.getPosition());
+
+            //Update all of the Enemies
+            tickEnemies();
+
+            //Do the following for all Enemies, in order
+            for (int i = 0; i < enemies.size(); i++) {
+                Enemy enemy = enemies.get(i);
+                if (enemy != null) {
+                    Tile enemyPosition = enemy.getPosition();
+
+                    //Check collision between Enemy and Player
+                    if (enemyPosition != null) {
+                        if (enemyPosition.equals(player.position)) {
+                            player.doDamage(enemy.getDamageAmount());
+                        }
+                    }
+
+                    //Do PowerUps for all Enemies (although there is no
+                    //PowerUp for Enemies, this provides infrastructure
+                    //for there to be).
+                    ArrayList<PowerUp> enemyPowerUps = currentLevel.getPowerUpsAt(enemyPosition);
+                    if (enemyPowerUps != null) {
+                        for (int a = enemyPowerUps.size() - 1; a >= 0; a--) {
+                            enemyPowerUps.get(a).doPowerUp(enemy);
+                        }
+                    }
+
+                    //Check collisions with the Projectiles whose position or
+                    //target is the Enemy's position
+                    ArrayList<Projectile> hits = currentLevel.getProjectileGrid().get(enemyPosition);
+                    if (hits != null) {
+                        for (int a = 0; a < hits.size(); a++) {
+                            Projectile projectile = hits.get(a);
+
+                            // If the projectile hasn't already been
+                            // destroyed
+                            if (!projectile.getDestroyProjectile()) {
+                                //Damage Enemy and destroy the Projectile
+                                enemy.doDamage(Projectile.DAMAGE_TO_ENEMY);
+                                projectile.destroyProjectile();
+                            }
+                        }
+                    }
+
+                    //Remove any dead Enemies, and check the Enemy that
+                    //takes its place
+                    if (enemy.isDead()) {
+                        enemies.remove(i--);
+                    }
+                }
+            }
+
+            //Update the Enemies in the swarm, which do the same collisions
+            EnemySwarm swarm = currentLevel.getSwarm();
+            swarm.tick(player);
+
+            //If all Enemies are dead
+            if (enemies.size() <= 0 && swarm.getCount() <= 0) {
+                // Win
+                endLevel(true);
+            }
+        }
+
+        //Do the following for all Projectiles
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile projectile = projectiles.get(i);
+            if (projectile != null) {
+                //If the projectile isn't null, update it
+                projectile.tick();
+
+                //Remove any destroyed Projectiles, and check the Projectile
+                //that takes its place
+                if (projectile.getDestroyProjectile()) {
+                    removeProjectile(i--);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method ticks every Enemy, either one after the other on this thread
+     * or, if PARALLEL_ENEMIES is enabled and there are enough of them, on all
+     * of the processors at once. This returns once every Enemy has been
+     * ticked.
+     */
+    private void tickEnemies() {
+        if (PARALLEL_ENEMIES && enemies.size() > PARALLEL_THRESHOLD) {
+            getEnemyPool().invoke(new EnemyTask(0, enemies.size()));
+        } else {
+            for (int i = 0; i < enemies.size(); i++) {
+                Enemy enemy = enemies.get(i);
+                if (enemy != null) {
+                    enemy.tick();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the threads that tick the Enemies in parallel, starting them if
+     * this is the first time they're needed.
+     *
+     * @return The ForkJoinPool of threads.
+     */
+    private static synchronized ForkJoinPool getEnemyPool() {
+        if (enemyPool == null) {
+            enemyPool = new ForkJoinPool();
+        }
+        return enemyPool;
+    }
+
+    /**
+     * This method removes a Projectile from the game and recycles it. The last
+     * Projectile in the ArrayList is moved into its place, so that the others
+     * don't have to be shifted down.
+     *
+     * @param i The index of the Projectile to remove.
+     */
+    private void removeProjectile(int i) {
+        Projectile projectile = projectiles.get(i);
+
+        int last = projectiles.size() - 1;
+        projectiles.set(i, projectiles.get(last));
+        projectiles.remove(last);
+
+        ProjectilePool.POOL.recycle(projectile);
+    }
+
+    /**
+     * This method records that the current Level has ended, and tells the
+     * Applet if there is one.
+     *
+     * @param win Whether or not the Level was won.
+     */
+    private void endLevel(boolean win) {
+        levelOver = true;
+        levelWon = win;
+
+        if (mainApplet != null) {
+            mainApplet.endLevel(win);
+        }
+    }
+
+    /**
+     * This method is responsible for collecting all light area that is lit up
+     * by Enemies and Projectiles and the Player. The Player's light is sent to
+     * the Level to be lit up permanently, and all of the lights are returned
+     * to be drawn.
+     *
+     * @return The circles of light that are lit up, as the x, y and radius of
+     * each circle, or null if there is no Level or Player.
+     */
+    public int[] updateLights() {
+        //Level and Player must not be null
+        if (currentLevel == null || player == null) {
+            return null;
+        }
+
+        //Represents the circles of light that are lit for this iteration, as
+        //the x, y and radius of each circle. A new array is used every time,
+        //since the paint thread may still be drawing the last one. Any unused
+        //circles at the end have a radius of 0.
+        EnemySwarm swarm = currentLevel.getSwarm();
+        int numLights = 1 + enemies.size() + swarm.getCount() + projectiles.size();
+        int[] tempLights = new int[numLights * 3];
+        int i = 0;
+
+        if (player != null) {
+            currentLevel.setCurrentLight(player.getLightX(), player.getLightY(),
+                    player.getLightRadius());
+
+            //Add the player's light to the temp lights so that there is no
+            //"flicker" when the map is first displayed. This "flicker" is do to
+            //the permanently lit cells not being updated until the Level
+            //thread executes.
+            i = addLight(tempLights, i, player);
+        }
+
+        //Add the light for all Enemies
+        for (int j = 0; j < enemies.size(); j++) {
+            Enemy enemy = enemies.get(j);
+            if (enemy != null && enemy.getPosition() != null) {
+                i = addLight(tempLights, i, enemy);
+            }
+        }
+        for (int j = 0; j < swarm.getCount(); j++) {
+            tempLights[i++] = swarm.getXPixels(j) + Tile.WIDTH / 2;
+            tempLights[i++] = swarm.getYPixels(j) + Tile.HEIGHT / 2;
+            tempLights[i++] = swarm.getLightRadius();
+        }
+
+        //Add the light for all Projectiles
+        for (int j = 0; j < projectiles.size(); j++) {
+            Projectile projectile = projectiles.get(j);
+            if (projectile != null) {
+                i = addLight(tempLights, i, projectile);
+            }
+        }
+
+        //The temp lights are the ones that do not light up the Level
+        //permanently. They are drawn from the RenderSnapshot.
+        return tempLights;
+    }
+
+    /**
+     * This method adds the light of an Actor to an array of lights.
+     *
+     * @param lights The array of lights, holding the x, y and radius of each.
+     * @param i The index in the array to add the light at.
+     * @param actor The Actor whose light is added.
+     * @return The index after the light that was added.
+     */
+    private int addLight(int[] lights, int i, Actor actor) {
+        lights[i++] = actor.getLightX();
+        lights[i++] = actor.getLightY();
+        lights[i++] = actor.getLightRadius();
+        return i;
+    }
+
+    /**
+     * This method brings the lights up to date and makes a RenderSnapshot of
+     * everything that must be drawn for the last tick.
+     *
+     * @param tickTime The value of System.nanoTime() when the Actors were last
+     * ticked.
+     * @return The RenderSnapshot, or null if there is no Level or Player.
+     */
+    public RenderSnapshot makeSnapshot(long tickTime) {
+        int[] lights = updateLights();
+        if (lights == null) {
+            return null;
+        }
+
+        return new RenderSnapshot(currentLevel, player, enemies, projectiles,
+                lights, tickTime);
+    }
+
+    /**
+     * This method is responsible for changing the Level that is currently being
+     * simulated.
+     *
+     * @param newLevel The new Level to simulate.
+     */
+    public void changeLevel(Level newLevel) {
+        this.currentLevel = newLevel;
+        levelOver = false;
+        levelWon = false;
+    }
+
+    /**
+     * Gets whether or not the current Level has ended, either because the
+     * Player died or because all of the Enemies were destroyed.
+     *
+     * @return Whether or not the current Level has ended.
+     */
+    public boolean isLevelOver() {
+        return levelOver;
+    }
+
+    /**
+     * Gets whether or not the current Level was won. This is only meaningful
+     * once isLevelOver() returns true.
+     *
+     * @return Whether or not the current Level was won.
+     */
+    public boolean getLevelWon() {
+        return levelWon;
+    }
+
+    /**
+     * Gets the number of times that the Simulation has been ticked.
+     *
+     * @return The number of ticks.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+}
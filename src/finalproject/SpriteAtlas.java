@@ -0,0 +1,108 @@
+package finalproject;
+
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+
+/**
+ * This class holds the frames of a sprite sheet as separate images. A sprite
+ * sheet has one row for each direction of movement and one column for each
+ * frame of animation. The sheet is only cut up once, and every Actor that uses
+ * the same sheet shares the same SpriteAtlas, so drawing an Actor doesn't need
+ * to create a new image for its current frame.
+ *
+ * The frames are copied into images that are compatible with the screen, so
+ * that Java2D can keep them in video memory and draw them quickly.
+ */
+public class SpriteAtlas {
+
+    /**
+     * The number of rows in a sprite sheet, one for each direction of
+     * movement.
+     */
+    public static final int NUM_DIRECTIONS = 4;
+    /**
+     * The SpriteAtlas for each sprite sheet that has been used. Sprite sheets
+     * are compared by reference, since they are only loaded once.
+     */
+    private static final IdentityHashMap<BufferedImage, SpriteAtlas> ATLASES = new IdentityHashMap<BufferedImage, SpriteAtlas>();
+    /**
+     * The frames of the sprite sheet, indexed by [direction][frame].
+     */
+    private BufferedImage[][] frames;
+
+    /**
+     * Create a SpriteAtlas by cutting the sprite sheet into frames.
+     *
+     * @param spriteSheet The sprite sheet.
+     * @param numFrames The number of frames in each row of the sprite sheet.
+     */
+    private SpriteAtlas(BufferedImage spriteSheet, int numFrames) {
+        int frameWidth = spriteSheet.getWidth() / numFrames;
+        int frameHeight = spriteSheet.getHeight() / NUM_DIRECTIONS;
+
+        frames = new BufferedImage[NUM_DIRECTIONS][numFrames];
+        for (int direction = 0; direction < NUM_DIRECTIONS; direction++) {
+            for (int frame = 0; frame < numFrames; frame++) {
+                BufferedImage image = createImage(frameWidth, frameHeight);
+                Graphics2D g = image.createGraphics();
+                g.drawImage(spriteSheet.getSubimage(frame * frameWidth, direction * frameHeight,
+                        frameWidth, frameHeight), 0, 0, null);
+                g.dispose();
+
+                frames[direction][frame] = image;
+            }
+        }
+    }
+
+    /**
+     * This method returns the SpriteAtlas for a sprite sheet, cutting the
+     * sprite sheet up the first time that it is used.
+     *
+     * @param spriteSheet The sprite sheet.
+     * @param numFrames The number of frames in each row of the sprite sheet.
+     * @return The SpriteAtlas holding the frames of the sprite sheet.
+     */
+    public static synchronized SpriteAtlas getAtlas(BufferedImage spriteSheet, int numFrames) {
+        SpriteAtlas atlas = ATLASES.get(spriteSheet);
+        if (atlas == null) {
+            atlas = new SpriteAtlas(spriteSheet, numFrames);
+            ATLASES.put(spriteSheet, atlas);
+        }
+        return atlas;
+    }
+
+    /**
+     * This method creates an image with transparency that is compatible with
+     * the screen. If there is no screen (for example, in the benchmarks), a
+     * normal ARGB image is created instead.
+     *
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @return The new image.
+     */
+    private static BufferedImage createImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * This method returns a single frame.
+     *
+     * @param frame The frame of animation, which is the column of the sprite
+     * sheet.
+     * @param direction The direction of movement, which is the row of the
+     * sprite sheet.
+     * @return The image of the frame.
+     */
+    public BufferedImage getFrame(int frame, int direction) {
+        return frames[direction][frame];
+    }
+}
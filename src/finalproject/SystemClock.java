@@ -0,0 +1,32 @@
+package finalproject;
+
+
+/**
+ * This class is a GameClock that follows the real time. It is based on
+ * System.nanoTime(), so unlike System.currentTimeMillis() it is precise and
+ * never goes backwards when the computer's clock is changed.
+ */
+public class SystemClock extends GameClock {
+
+    /**
+     * The value of System.nanoTime() when the clock was made.
+     */
+    private final long start;
+
+    /**
+     * Create a new SystemClock, starting at 0.
+     */
+    public SystemClock() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    /**
+     * Gets the real time since the clock was made.
+     *
+     * @return The time since the clock was made, in nanoseconds.
+     */
+    public long nanoTime() {
+        return System.nanoTime() - start;
+    }
+}
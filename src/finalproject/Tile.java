@@ -29,11 +29,12 @@ public class Tile {
     /**
      * The position of the Tile.
      */
-    int x, y;
+    final int x, y;
     /**
-     * Whether or not the Tile is a wall.
+     * Whether or not the Tile is a wall. A Tile never changes once it's made,
+     * so the Level can hand the same Tile to every thread.
      */
-    boolean isWall;
+    final boolean isWall;
 
     /**
      * Create a Tile based on the following parameters.
@@ -66,6 +67,8 @@ public class Tile {
             //Store the width and height as static variables for future use.
             Tile.WIDTH = tileWidth;
             Tile.HEIGHT = tileHeight;
+            Actor.DEFAULT_LIGHT_RADIUS = (int) (Math.sqrt(Math.pow(tileWidth, 2)
+                    + Math.pow(tileHeight, 2)) * 2);
         } else {
             //Throw an exception if the width and height of each are not identical
             throw new Exception("tileImage size does not match emptyImage size");
@@ -89,14 +92,11 @@ public class Tile {
     /**
      * This method overrides the definition of equals(Object o) defined in
      * Object. The purpose of this method is to allow tileOne.equals(tileTwo) to
-     * return true if the x- and y-coordinates are equal. The same functionality
-     * is added for Level.PathTiles, so that an ArrayList<Level.PathTile> can
-     * call contains(Tile t).
+     * return true if the x- and y-coordinates are equal.
      *
-     * @param o The object to compare to. Can be either a Tile or a
-     * Level.PathTile
+     * @param o The object to compare to.
      * @return Whether or not the x- and y- coordinates of this Tile are equal
-     * to those of the given Tile or Level.PathTile.
+     * to those of the given Tile.
      */
     public boolean equals(Object o) {
         if (o instanceof Tile) {
@@ -105,14 +105,7 @@ public class Tile {
             //Return whether the coordinates are equal.
             return this.x == t.x && this.y == t.y;
         }
-        if (o instanceof Level.PathTile) {
-            Level.PathTile pt = (Level.PathTile) o;
-
-            //Return if this Tile equals the Level.PathTile's current Tile
-            return this.equals(pt.getCurrent());
-        }
-
-        //If it's not a Tile or Level.PathTile, then it's not equal.
+        //If it's not a Tile, then it's not equal.
         return false;
     }
 
@@ -0,0 +1,47 @@
+package finalproject;
+
+
+/**
+ * This class is a GameClock that only moves forward when it is told to. When
+ * the game is simulated without a screen, it is advanced by the length of one
+ * tick after every tick, so the game behaves as if it were running in real
+ * time, even though the ticks are done as fast as possible.
+ */
+public class VirtualClock extends GameClock {
+
+    /**
+     * The time on the clock, in nanoseconds.
+     */
+    private volatile long time;
+
+    @Override
+    /**
+     * Gets the time that the clock has been advanced to.
+     *
+     * @return The time on the clock, in nanoseconds.
+     */
+    public long nanoTime() {
+        return time;
+    }
+
+    /**
+     * This method moves the clock forward.
+     *
+     * @param nanos The amount of time to move forward by, in nanoseconds. This
+     * must not be negative.
+     */
+    public void advance(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("A GameClock can't go backwards");
+        }
+        time += nanos;
+    }
+
+    /**
+     * This method moves the clock forward by the length of one tick, at
+     * MainApplet.TICK_RATE ticks per second.
+     */
+    public void advanceTick() {
+        advance(1000000000L / MainApplet.TICK_RATE);
+    }
+}